@@ -0,0 +1,49 @@
+package com.example.startstoppbot;
+
+import com.example.startstoppbot.config.ContainerKeyMigration;
+import com.example.startstoppbot.service.ContainerStateCache;
+import com.example.startstoppbot.service.DockerHostRegistry;
+import com.example.startstoppbot.service.DockerService;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.autoconfigure.EnableAutoConfiguration;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import javax.sql.DataSource;
+import java.util.Map;
+
+/**
+ * Minimaler Spring-Kontext für die Benchmarks: JPA mit In-Memory-H2, Cache und DockerService.
+ * Kein Discord, kein Webserver, keine Scheduler und keine Docker-Hosts.
+ */
+@Configuration
+@EnableAutoConfiguration
+@Import({ContainerStateCache.class, DockerService.class})
+public class BenchmarkContext {
+
+    // ContainerStateCache wartet per @DependsOn auf diesen Bean-Namen
+    @Bean
+    public ContainerKeyMigration containerKeyMigration(DataSource dataSource, JdbcTemplate jdbcTemplate) {
+        return new ContainerKeyMigration(dataSource, jdbcTemplate);
+    }
+
+    @Bean
+    public DockerHostRegistry dockerHostRegistry() {
+        return new DockerHostRegistry(Map.of());
+    }
+
+    public static ConfigurableApplicationContext start() {
+        return new SpringApplicationBuilder(BenchmarkContext.class)
+                .web(WebApplicationType.NONE)
+                .logStartupInfo(false)
+                // Als Argumente übergeben, damit sie application.properties überschreiben
+                .run("--spring.datasource.url=jdbc:h2:mem:benchmark;DB_CLOSE_DELAY=-1",
+                        "--spring.main.banner-mode=off",
+                        "--logging.file.name=",
+                        "--logging.level.root=WARN");
+    }
+}
@@ -0,0 +1,23 @@
+package com.example.startstoppbot;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Startet alle (bzw. die per Argument ausgewählten) Benchmarks, immer mit GC-Profiler
+ * (gc.alloc.rate.norm = allokierte Bytes je Operation).
+ * Aufruf: mvn -Pjmh test-compile exec:exec [-Djmh.args="SyncBenchmark -p containers=1000"]
+ */
+public class BenchmarkRunner {
+
+    public static void main(String[] args) throws Exception {
+        Options options = new OptionsBuilder()
+                .parent(new CommandLineOptions(args))
+                .addProfiler(GCProfiler.class)
+                .build();
+        new Runner(options).run();
+    }
+}
@@ -0,0 +1,62 @@
+package com.example.startstoppbot;
+
+import com.example.startstoppbot.model.ContainerInfo;
+import com.example.startstoppbot.service.BenchmarkDaten;
+import com.example.startstoppbot.service.ContainerStateCache;
+import com.example.startstoppbot.service.DockerHostRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Seiten für /getserverstatuslist: Neuaufteilung nach einer Änderung inkl. Rendern der ersten Seite
+ * und Abruf einer bereits gerenderten Seite (Command und Blättern).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class StatusEmbedBenchmark {
+
+    @Param({"10", "100", "1000", "10000"})
+    public int containers;
+
+    private StatusListPages statusListPages;
+    private List<ContainerInfo> daten;
+    private int seite;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        daten = BenchmarkDaten.containerInfos(containers);
+        daten.forEach(container -> container.setDiscordEnabled(true));
+
+        ContainerStateCache cache = new ContainerStateCache(null, new SimpleMeterRegistry());
+        cache.ersetzeAlle(daten);
+        statusListPages = new StatusListPages(cache, new DockerHostRegistry(Map.of()), 15);
+        statusListPages.init();
+    }
+
+    @Setup(Level.Iteration)
+    public void rendereSeiten() {
+        // Alle Seiten einmal abrufen, damit seiteAbrufen nur noch fertige Seiten liefert
+        for (int i = 0; i < containers; i++) {
+            statusListPages.seite(StatusListPages.Filter.ALLE, i);
+        }
+    }
+
+    @Benchmark
+    public StatusListPages.Seite neuAufbauen() {
+        return statusListPages.baueAlle(daten).get(StatusListPages.Filter.ALLE).get(0);
+    }
+
+    @Benchmark
+    public StatusListPages.Seite seiteAbrufen() {
+        seite = (seite + 1) % containers;
+        return statusListPages.seite(StatusListPages.Filter.ALLE, seite);
+    }
+}
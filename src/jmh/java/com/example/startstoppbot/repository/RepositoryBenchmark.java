@@ -0,0 +1,81 @@
+package com.example.startstoppbot.repository;
+
+import com.example.startstoppbot.BenchmarkContext;
+import com.example.startstoppbot.model.ContainerInfo;
+import com.example.startstoppbot.model.ContainerKey;
+import com.example.startstoppbot.service.BenchmarkDaten;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Finder-Methoden von ContainerInfoRepository gegen eine In-Memory-H2
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RepositoryBenchmark {
+
+    @Param({"10", "100", "1000", "10000"})
+    public int containers;
+
+    private ConfigurableApplicationContext context;
+    private ContainerInfoRepository repository;
+
+    private ContainerKey mittlererKey;
+    private String mittlereContainerId;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        context = BenchmarkContext.start();
+        repository = context.getBean(ContainerInfoRepository.class);
+
+        List<ContainerInfo> daten = BenchmarkDaten.containerInfos(containers);
+        repository.saveAll(daten);
+
+        ContainerInfo mitte = daten.get(containers / 2);
+        mittlererKey = mitte.key();
+        mittlereContainerId = mitte.getContainerId();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public List<ContainerInfo> findAll() {
+        return repository.findAll();
+    }
+
+    @Benchmark
+    public Optional<ContainerInfo> findById() {
+        return repository.findById(mittlererKey);
+    }
+
+    @Benchmark
+    public Optional<ContainerInfo> findByContainerId() {
+        return repository.findByContainerId(mittlereContainerId);
+    }
+
+    @Benchmark
+    public List<ContainerInfo> findByDiscordEnabledTrue() {
+        return repository.findByDiscordEnabledTrue();
+    }
+
+    @Benchmark
+    public List<ContainerInfo> findByCurrentPlayersGreaterThan() {
+        return repository.findByCurrentPlayersGreaterThan(0);
+    }
+
+    @Benchmark
+    public List<ContainerInfo> findByPlayerCountBetween() {
+        return repository.findByPlayerCountBetween(5, 10);
+    }
+}
@@ -0,0 +1,55 @@
+package com.example.startstoppbot.service;
+
+import com.example.startstoppbot.model.ContainerInfo;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Autocomplete-Suche im ContainerNameIndex (läuft bei jedem Tastendruck auf dem JDA-Thread).
+ * Alle Container sind für Discord freigegeben; der Cache arbeitet ohne Datenbank.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class AutocompleteBenchmark {
+
+    @Param({"100", "1000", "10000"})
+    public int containers;
+
+    private ContainerNameIndex index;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        List<ContainerInfo> daten = BenchmarkDaten.containerInfos(containers);
+        daten.forEach(container -> container.setDiscordEnabled(true));
+
+        ContainerStateCache cache = new ContainerStateCache(null, new SimpleMeterRegistry());
+        cache.ersetzeAlle(daten);
+        index = new ContainerNameIndex(cache);
+        index.init();
+    }
+
+    @Benchmark
+    public List<ContainerInfo> praefix() {
+        return index.suche("Bench-Server-4", null, 25);
+    }
+
+    @Benchmark
+    public List<ContainerInfo> teilstring() {
+        return index.suche("server-99", null, 25);
+    }
+
+    /**
+     * Vertauschte Buchstaben: kein Präfix- oder Teilstring-Treffer, es wird über alle Namen die Distanz berechnet
+     */
+    @Benchmark
+    public List<ContainerInfo> tippfehler() {
+        return index.suche("bnech-srever-4", null, 25);
+    }
+}
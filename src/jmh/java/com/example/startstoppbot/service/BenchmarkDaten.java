@@ -0,0 +1,100 @@
+package com.example.startstoppbot.service;
+
+import com.example.startstoppbot.model.ContainerInfo;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Synthetische Container für die Benchmarks
+ */
+public final class BenchmarkDaten {
+
+    private BenchmarkDaten() {
+    }
+
+    public static String name(int i) {
+        return "bench-server-" + i;
+    }
+
+    public static String containerId(int i, int generation) {
+        return String.format(Locale.ROOT, "%064x", (long) i * 31 + generation);
+    }
+
+    /**
+     * Antwort von /containers/json als Objekte.
+     * @param geaendert true: jeder 10. Container hat einen anderen Status, jeder 100. wurde durch einen neuen ersetzt
+     */
+    static List<DockerService.DockerContainer> dockerContainer(int anzahl, boolean geaendert) {
+        List<DockerService.DockerContainer> result = new ArrayList<>(anzahl);
+        for (int i = 0; i < anzahl; i++) {
+            DockerService.DockerContainer container = new DockerService.DockerContainer();
+            boolean ersetzt = geaendert && i % 100 == 99;
+            container.setId(containerId(i, ersetzt ? 1 : 0));
+            container.setNames(List.of("/" + (ersetzt ? name(i) + "-neu" : name(i))));
+            container.setState(geaendert && i % 10 == 0 ? "exited" : "running");
+            container.setStatus("Up 2 hours");
+            container.setImage("itzg/minecraft-server:latest");
+            container.setCommand("/start");
+            container.setCreated(1_700_000_000L + i);
+            result.add(container);
+        }
+        return result;
+    }
+
+    /**
+     * Antwort von /containers/json als JSON, mit den Feldern, die die Docker Engine tatsächlich liefert
+     */
+    public static byte[] dockerContainerJson(int anzahl) {
+        StringBuilder json = new StringBuilder(anzahl * 900).append('[');
+        for (int i = 0; i < anzahl; i++) {
+            if (i > 0) {
+                json.append(',');
+            }
+            String id = containerId(i, 0);
+            json.append("{\"Id\":\"").append(id).append("\",")
+                    .append("\"Names\":[\"/").append(name(i)).append("\"],")
+                    .append("\"Image\":\"itzg/minecraft-server:latest\",")
+                    .append("\"ImageID\":\"sha256:").append(id).append("\",")
+                    .append("\"Command\":\"/start\",")
+                    .append("\"Created\":").append(1_700_000_000L + i).append(',')
+                    .append("\"Ports\":[{\"IP\":\"0.0.0.0\",\"PrivatePort\":25565,\"PublicPort\":").append(20000 + i % 40000)
+                    .append(",\"Type\":\"tcp\"}],")
+                    .append("\"Labels\":{\"com.docker.compose.project\":\"games\",\"com.docker.compose.service\":\"")
+                    .append(name(i)).append("\"},")
+                    .append("\"State\":\"").append(i % 3 == 0 ? "exited" : "running").append("\",")
+                    .append("\"Status\":\"Up 2 hours\",")
+                    .append("\"HostConfig\":{\"NetworkMode\":\"games_default\"},")
+                    .append("\"NetworkSettings\":{\"Networks\":{\"games_default\":{\"IPAddress\":\"172.18.0.")
+                    .append(i % 250 + 2).append("\",\"Gateway\":\"172.18.0.1\",\"MacAddress\":\"02:42:ac:12:00:02\"}}},")
+                    .append("\"Mounts\":[{\"Type\":\"volume\",\"Name\":\"").append(name(i))
+                    .append("-data\",\"Destination\":\"/data\",\"Driver\":\"local\",\"Mode\":\"z\",\"RW\":true}]}");
+        }
+        return json.append(']').toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Datenbank-/Cache-Einträge mit gemischten Zuständen: jeder 5. für Discord freigegeben,
+     * jeder 3. mit Spielern, jeder 4. gestoppt
+     */
+    public static List<ContainerInfo> containerInfos(int anzahl) {
+        List<ContainerInfo> result = new ArrayList<>(anzahl);
+        LocalDateTime now = LocalDateTime.now();
+        for (int i = 0; i < anzahl; i++) {
+            ContainerInfo container = new ContainerInfo();
+            container.setEndpointId(1);
+            container.setName(name(i));
+            container.setContainerId(containerId(i, 0));
+            container.setStatus(i % 4 == 0 ? "exited" : "running");
+            container.setDiscordEnabled(i % 5 == 0);
+            container.setCurrentPlayers(i % 3 == 0 ? i % 20 + 1 : 0);
+            container.setMaxPlayers(20);
+            container.setLastPlayerUpdate(now.minusMinutes(i % 120));
+            result.add(container);
+        }
+        return result;
+    }
+}
@@ -0,0 +1,38 @@
+package com.example.startstoppbot.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Deserialisierung der /containers/json-Antwort in DockerContainer[] - mit demselben ObjectMapper-Setup
+ * wie der Message-Converter des RestTemplate
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class DockerJsonBenchmark {
+
+    @Param({"10", "100", "1000", "10000"})
+    public int containers;
+
+    private ObjectMapper objectMapper;
+    private byte[] json;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        json = BenchmarkDaten.dockerContainerJson(containers);
+    }
+
+    @Benchmark
+    public DockerService.DockerContainer[] deserialisieren() throws IOException {
+        return objectMapper.readValue(json, DockerService.DockerContainer[].class);
+    }
+}
@@ -0,0 +1,66 @@
+package com.example.startstoppbot.service;
+
+import com.example.startstoppbot.BenchmarkContext;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Abgleich der Docker-Containerliste mit Datenbank und Cache (DockerService.processContainers
+ * inkl. deleteOldContainers) gegen eine In-Memory-H2.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SyncBenchmark {
+
+    @Param({"10", "100", "1000", "10000"})
+    public int containers;
+
+    private ConfigurableApplicationContext context;
+    private DockerService dockerService;
+
+    private Map<Integer, List<DockerService.DockerContainer>> unveraendert;
+    private Map<Integer, List<DockerService.DockerContainer>> geaendert;
+    private boolean umschalten;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        context = BenchmarkContext.start();
+        dockerService = context.getBean(DockerService.class);
+
+        unveraendert = Map.of(1, BenchmarkDaten.dockerContainer(containers, false));
+        geaendert = Map.of(1, BenchmarkDaten.dockerContainer(containers, true));
+
+        // Erster Abgleich legt alle Container an
+        dockerService.gleicheAb(unveraendert);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    /**
+     * Regelfall: Docker meldet denselben Stand wie in der Datenbank
+     */
+    @Benchmark
+    public void abgleichUnveraendert() {
+        dockerService.gleicheAb(unveraendert);
+    }
+
+    /**
+     * Abwechselnd 10 % Statuswechsel und 1 % ersetzte Container (Löschen + Anlegen) und wieder zurück
+     */
+    @Benchmark
+    public void abgleichMitAenderungen() {
+        dockerService.gleicheAb(umschalten ? geaendert : unveraendert);
+        umschalten = !umschalten;
+    }
+}
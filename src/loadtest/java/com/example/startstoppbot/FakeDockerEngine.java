@@ -0,0 +1,386 @@
+package com.example.startstoppbot;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Eingebetteter Ersatz für die Docker Engine API (nur lokal, ohne Netzwerk und ohne echten Daemon).
+ * Unterstützt /version, /containers/json, /containers/{id}/json, /containers/{id}/start|stop|restart
+ * und den /events Stream. Start und Stopp werden nach transitionDelay wirksam und erzeugen dieselben
+ * Events wie ein echter Daemon; jeder 5. Container hat einen Healthcheck (starting → healthy).
+ * Latenz (mit Streuung) und eingestreute 500-Fehler sind konfigurierbar.
+ *
+ * Eigenständig starten und docker.host darauf zeigen lassen:
+ * java -cp ... com.example.startstoppbot.FakeDockerEngine port=2375 containers=200 latencyMs=20 errorRate=0.01
+ */
+public class FakeDockerEngine implements AutoCloseable {
+
+    /**
+     * @param containers Anzahl simulierter Container
+     * @param latency Grundlatenz je Aufruf
+     * @param jitter zusätzliche zufällige Latenz (0 bis jitter)
+     * @param errorRate Anteil der Aufrufe, die mit 500 beantwortet werden (0.0 - 1.0, nicht für /events)
+     * @param transitionDelay Zeit bis ein Start/Stopp wirksam wird
+     * @param runningRatio Anteil der Container, die zu Beginn laufen
+     */
+    public record Settings(int containers, Duration latency, Duration jitter, double errorRate,
+                           Duration transitionDelay, double runningRatio) {
+
+        public static Settings standard() {
+            return new Settings(100, Duration.ofMillis(5), Duration.ofMillis(10), 0.0, Duration.ofMillis(500), 0.5);
+        }
+
+        /**
+         * Übernimmt Werte im Format key=value (containers, latencyMs, jitterMs, errorRate, transitionMs, runningRatio)
+         */
+        public static Settings fromArgs(Map<String, String> args) {
+            Settings d = standard();
+            return new Settings(
+                    Integer.parseInt(args.getOrDefault("containers", String.valueOf(d.containers()))),
+                    Duration.ofMillis(Long.parseLong(args.getOrDefault("latencyMs", String.valueOf(d.latency().toMillis())))),
+                    Duration.ofMillis(Long.parseLong(args.getOrDefault("jitterMs", String.valueOf(d.jitter().toMillis())))),
+                    Double.parseDouble(args.getOrDefault("errorRate", String.valueOf(d.errorRate()))),
+                    Duration.ofMillis(Long.parseLong(args.getOrDefault("transitionMs", String.valueOf(d.transitionDelay().toMillis())))),
+                    Double.parseDouble(args.getOrDefault("runningRatio", String.valueOf(d.runningRatio())))
+            );
+        }
+    }
+
+    // Optionales Versionspräfix wie bei der echten API (/v1.49/containers/json)
+    private static final Pattern VERSION_PREFIX = Pattern.compile("^/v\\d+(\\.\\d+)?");
+    private static final Pattern CONTAINER_PATH = Pattern.compile("^/containers/([^/]+)/(json|start|stop|restart)$");
+    // Markiert das Ende eines Event-Streams (Vergleich per Identität, kann mit keinem Event verwechselt werden)
+    @SuppressWarnings("StringOperationCanBeSimplified")
+    private static final String EVENT_ENDE = new String("ende");
+
+    private final Settings settings;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final HttpServer server;
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+    private final ScheduledExecutorService transitions = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread thread = new Thread(r, "fake-docker-transitions");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    // Reihenfolge wie bei "docker ps" stabil halten
+    private final Map<String, FakeContainer> containers = Collections.synchronizedMap(new LinkedHashMap<>());
+    private final List<BlockingQueue<String>> eventSubscribers = new CopyOnWriteArrayList<>();
+
+    private final LongAdder requests = new LongAdder();
+    private final LongAdder injectedErrors = new LongAdder();
+
+    private static final class FakeContainer {
+        private final String id;
+        private final String name;
+        private final boolean healthcheck;
+        private volatile String status;
+        private volatile String health;
+        private volatile int exitCode;
+
+        private FakeContainer(String id, String name, boolean healthcheck, boolean running) {
+            this.id = id;
+            this.name = name;
+            this.healthcheck = healthcheck;
+            this.status = running ? "running" : "exited";
+            this.health = running && healthcheck ? "healthy" : null;
+        }
+
+        private boolean isRunning() {
+            return "running".equals(status);
+        }
+    }
+
+    public FakeDockerEngine(Settings settings, int port) throws IOException {
+        this.settings = settings;
+        for (int i = 0; i < settings.containers(); i++) {
+            String id = String.format(Locale.ROOT, "%064x", 0xD0C4E2L * 1_000_003L + i);
+            boolean running = i < Math.round(settings.containers() * settings.runningRatio());
+            containers.put(id, new FakeContainer(id, "fake-server-" + i, i % 5 == 0, running));
+        }
+
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", port), 0);
+        server.setExecutor(executor);
+        server.createContext("/", this::handle);
+        server.start();
+    }
+
+    public String getUrl() {
+        return "http://127.0.0.1:" + server.getAddress().getPort();
+    }
+
+    public long getRequests() {
+        return requests.sum();
+    }
+
+    public long getInjectedErrors() {
+        return injectedErrors.sum();
+    }
+
+    @Override
+    public void close() {
+        eventSubscribers.forEach(queue -> queue.offer(EVENT_ENDE));
+        server.stop(0);
+        transitions.shutdownNow();
+        executor.shutdownNow();
+    }
+
+    // ===== HTTP =====
+
+    private void handle(HttpExchange exchange) throws IOException {
+        requests.increment();
+        try (exchange) {
+            String path = VERSION_PREFIX.matcher(exchange.getRequestURI().getPath()).replaceFirst("");
+            String method = exchange.getRequestMethod();
+
+            if ("GET".equals(method) && "/events".equals(path)) {
+                streameEvents(exchange);
+                return;
+            }
+
+            simuliereLatenz();
+            if (settings.errorRate() > 0 && ThreadLocalRandom.current().nextDouble() < settings.errorRate()) {
+                injectedErrors.increment();
+                antworte(exchange, 500, Map.of("message", "injected error"));
+                return;
+            }
+
+            if ("GET".equals(method) && "/version".equals(path)) {
+                antworte(exchange, 200, Map.of("Version", "fake", "ApiVersion", "1.49", "Os", "linux"));
+                return;
+            }
+            if ("GET".equals(method) && "/containers/json".equals(path)) {
+                boolean all = Objects.requireNonNullElse(exchange.getRequestURI().getQuery(), "").contains("all=true");
+                antworte(exchange, 200, liste(all));
+                return;
+            }
+
+            Matcher matcher = CONTAINER_PATH.matcher(path);
+            if (!matcher.matches()) {
+                antworte(exchange, 404, Map.of("message", "page not found"));
+                return;
+            }
+
+            FakeContainer container = finde(matcher.group(1));
+            if (container == null) {
+                antworte(exchange, 404, Map.of("message", "No such container: " + matcher.group(1)));
+                return;
+            }
+
+            String aktion = matcher.group(2);
+            if ("json".equals(aktion) && "GET".equals(method)) {
+                antworte(exchange, 200, inspect(container));
+            } else if ("POST".equals(method)) {
+                int status = fuehreAus(container, aktion);
+                exchange.sendResponseHeaders(status, -1);
+            } else {
+                antworte(exchange, 405, Map.of("message", "method not allowed"));
+            }
+        }
+    }
+
+    private void simuliereLatenz() {
+        long millis = settings.latency().toMillis();
+        if (!settings.jitter().isZero()) {
+            millis += ThreadLocalRandom.current().nextLong(settings.jitter().toMillis() + 1);
+        }
+        if (millis > 0) {
+            try {
+                Thread.sleep(millis);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    private void antworte(HttpExchange exchange, int status, Object body) throws IOException {
+        byte[] bytes = objectMapper.writeValueAsBytes(body);
+        exchange.getResponseHeaders().set("Content-Type", "application/json");
+        exchange.sendResponseHeaders(status, bytes.length);
+        exchange.getResponseBody().write(bytes);
+    }
+
+    private FakeContainer finde(String idOrName) {
+        FakeContainer container = containers.get(idOrName);
+        if (container != null) {
+            return container;
+        }
+        synchronized (containers) {
+            return containers.values().stream().filter(c -> c.name.equals(idOrName)).findFirst().orElse(null);
+        }
+    }
+
+    private List<Map<String, Object>> liste(boolean all) {
+        List<FakeContainer> snapshot;
+        synchronized (containers) {
+            snapshot = new ArrayList<>(containers.values());
+        }
+        List<Map<String, Object>> result = new ArrayList<>(snapshot.size());
+        for (FakeContainer c : snapshot) {
+            if (!all && !c.isRunning()) {
+                continue;
+            }
+            Map<String, Object> entry = new LinkedHashMap<>();
+            entry.put("Id", c.id);
+            entry.put("Names", List.of("/" + c.name));
+            entry.put("Image", "itzg/minecraft-server:latest");
+            entry.put("Command", "/start");
+            entry.put("Created", 1_700_000_000L);
+            entry.put("State", c.status);
+            entry.put("Status", c.isRunning() ? "Up 2 hours" : "Exited (" + c.exitCode + ") 5 minutes ago");
+            // Fünf Compose-Stacks, z.B. für Label-Filter der Sammelaktionen
+            entry.put("Labels", Map.of("com.docker.compose.project", "stack-" + Math.floorMod(c.name.hashCode(), 5)));
+            result.add(entry);
+        }
+        return result;
+    }
+
+    private Map<String, Object> inspect(FakeContainer c) {
+        Map<String, Object> state = new LinkedHashMap<>();
+        state.put("Status", c.status);
+        state.put("Running", c.isRunning());
+        state.put("ExitCode", c.exitCode);
+        if (c.health != null) {
+            state.put("Health", Map.of("Status", c.health));
+        }
+        return Map.of("Id", c.id, "Name", "/" + c.name, "State", state);
+    }
+
+    // ===== Zustandsübergänge =====
+
+    /**
+     * @return HTTP-Status wie bei der echten API: 204 bei Erfolg, 304 wenn bereits im Zielzustand
+     */
+    private int fuehreAus(FakeContainer c, String aktion) {
+        long delay = settings.transitionDelay().toMillis();
+        switch (aktion) {
+            case "start":
+                if (c.isRunning()) {
+                    return 304;
+                }
+                transitions.schedule(() -> starte(c, "start"), delay, TimeUnit.MILLISECONDS);
+                return 204;
+            case "stop":
+                if (!c.isRunning()) {
+                    return 304;
+                }
+                transitions.schedule(() -> stoppe(c), delay, TimeUnit.MILLISECONDS);
+                return 204;
+            case "restart":
+                transitions.schedule(() -> {
+                    stoppe(c);
+                    starte(c, "restart");
+                }, delay, TimeUnit.MILLISECONDS);
+                return 204;
+            default:
+                return 404;
+        }
+    }
+
+    private void starte(FakeContainer c, String action) {
+        c.status = "running";
+        c.exitCode = 0;
+        if (c.healthcheck) {
+            c.health = "starting";
+            transitions.schedule(() -> {
+                if (c.isRunning()) {
+                    c.health = "healthy";
+                    sendeEvent(c, "health_status: healthy");
+                }
+            }, settings.transitionDelay().toMillis(), TimeUnit.MILLISECONDS);
+        }
+        sendeEvent(c, action);
+    }
+
+    private void stoppe(FakeContainer c) {
+        c.status = "exited";
+        c.health = null;
+        c.exitCode = 0;
+        sendeEvent(c, "die");
+        sendeEvent(c, "stop");
+    }
+
+    // ===== Events =====
+
+    private void sendeEvent(FakeContainer c, String action) {
+        if (eventSubscribers.isEmpty()) {
+            return;
+        }
+        long timeNano = System.currentTimeMillis() * 1_000_000L;
+        Map<String, Object> event = Map.of(
+                "Type", "container",
+                "Action", action,
+                "Actor", Map.of("ID", c.id, "Attributes", Map.of("name", c.name, "image", "itzg/minecraft-server:latest")),
+                "time", timeNano / 1_000_000_000L,
+                "timeNano", timeNano);
+        try {
+            String line = objectMapper.writeValueAsString(event);
+            eventSubscribers.forEach(queue -> queue.offer(line));
+        } catch (IOException e) {
+            System.err.println("Fake-Event konnte nicht serialisiert werden: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Hält die Verbindung offen und schreibt jedes Event als eigene JSON-Zeile (wie der echte Daemon).
+     * "since" und Filter werden ignoriert - es gibt nur Container-Events und keine Historie.
+     */
+    private void streameEvents(HttpExchange exchange) throws IOException {
+        BlockingQueue<String> queue = new LinkedBlockingQueue<>();
+        eventSubscribers.add(queue);
+        try {
+            exchange.getResponseHeaders().set("Content-Type", "application/json");
+            exchange.sendResponseHeaders(200, 0);
+            OutputStream body = exchange.getResponseBody();
+            while (true) {
+                String line = queue.take();
+                if (line == EVENT_ENDE) {
+                    return;
+                }
+                body.write((line + "\n").getBytes(StandardCharsets.UTF_8));
+                body.flush();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (IOException e) {
+            // Client hat die Verbindung geschlossen
+        } finally {
+            eventSubscribers.remove(queue);
+        }
+    }
+
+    // ===== Eigenständiger Start =====
+
+    static Map<String, String> parseArgs(String[] args) {
+        Map<String, String> result = new HashMap<>();
+        for (String arg : args) {
+            int separator = arg.indexOf('=');
+            if (separator > 0) {
+                result.put(arg.substring(0, separator), arg.substring(separator + 1));
+            }
+        }
+        return result;
+    }
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> parsed = parseArgs(args);
+        Settings settings = Settings.fromArgs(parsed);
+        FakeDockerEngine engine = new FakeDockerEngine(settings, Integer.parseInt(parsed.getOrDefault("port", "2375")));
+        System.out.println("Fake Docker Engine läuft unter " + engine.getUrl() + " mit " + settings.containers()
+                + " Containern (docker.host=" + engine.getUrl() + ")");
+        Runtime.getRuntime().addShutdownHook(new Thread(engine::close));
+        Thread.currentThread().join();
+    }
+}
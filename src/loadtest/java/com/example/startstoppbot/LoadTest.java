@@ -0,0 +1,235 @@
+package com.example.startstoppbot;
+
+import com.example.startstoppbot.model.ContainerInfo;
+import com.example.startstoppbot.service.ContainerJobService;
+import com.example.startstoppbot.service.ContainerStateCache;
+import com.example.startstoppbot.service.DockerService;
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.autoconfigure.EnableAutoConfiguration;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.ComponentScan;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.FilterType;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Lasttest gegen die vollständige Anwendung (REST, Cache, Puffer, H2 im Speicher, Event-Stream),
+ * die statt eines echten Daemons mit der FakeDockerEngine verbunden ist. Discord wird nicht verbunden:
+ * die Slash-Commands werden über dieselben Service-Aufrufe simuliert, die die Handler ausführen.
+ * Alle Szenarien laufen gleichzeitig in geschlossenen Schleifen (je Client ein Thread); am Ende
+ * werden Durchsatz und Latenz-Perzentile je Szenario ausgegeben.
+ *
+ * Aufruf: mvn -Ploadtest test-compile exec:exec -Dloadtest.args="containers=500 duration=60"
+ * Parameter (key=value): containers, duration (s), concurrency, batchSize, thinkMs, latencyMs, jitterMs,
+ * errorRate, transitionMs, runningRatio
+ */
+@Configuration
+@EnableAutoConfiguration
+@EnableScheduling
+@ComponentScan(excludeFilters = {
+        // Ohne JDA-Start (CommandLineRunner) und ohne den Benchmark-Kontext, falls -Pjmh ebenfalls aktiv ist
+        @ComponentScan.Filter(type = FilterType.ASSIGNABLE_TYPE, classes = StartStoppBotApplication.class),
+        @ComponentScan.Filter(type = FilterType.REGEX, pattern = "com\\.example\\.startstoppbot\\.Benchmark.*")
+})
+public class LoadTest {
+
+    /**
+     * Latenzen (µs), Fehler und Durchsatz eines Szenarios
+     */
+    private static final class Messung {
+        private final String name;
+        private final Histogram histogram = new ConcurrentHistogram(TimeUnit.MINUTES.toMicros(1), 3);
+        private final LongAdder fehler = new LongAdder();
+
+        private Messung(String name) {
+            this.name = name;
+        }
+
+        private void erfasse(long startNanos, boolean ok) {
+            histogram.recordValue(Math.min(TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - startNanos),
+                    histogram.getHighestTrackableValue()));
+            if (!ok) {
+                fehler.increment();
+            }
+        }
+    }
+
+    private interface Szenario {
+        boolean ausfuehren() throws Exception;
+    }
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> parsed = FakeDockerEngine.parseArgs(args);
+        int durationSeconds = Integer.parseInt(parsed.getOrDefault("duration", "30"));
+        int concurrency = Integer.parseInt(parsed.getOrDefault("concurrency", "64"));
+        int batchSize = Integer.parseInt(parsed.getOrDefault("batchSize", "50"));
+        // Pause je Client zwischen zwei Anfragen (0 = so schnell wie möglich)
+        long thinkMs = Long.parseLong(parsed.getOrDefault("thinkMs", "0"));
+        FakeDockerEngine.Settings settings = FakeDockerEngine.Settings.fromArgs(parsed);
+
+        Path historyFile = Files.createTempFile("loadtest-history", ".dat");
+        try (FakeDockerEngine engine = new FakeDockerEngine(settings, 0);
+             ConfigurableApplicationContext context = starteAnwendung(engine, historyFile)) {
+
+            String baseUrl = "http://127.0.0.1:" + context.getEnvironment().getProperty("local.server.port") + "/api/containers";
+            HttpClient httpClient = HttpClient.newBuilder()
+                    .version(HttpClient.Version.HTTP_1_1)
+                    .connectTimeout(Duration.ofSeconds(5))
+                    .build();
+
+            DockerService dockerService = context.getBean(DockerService.class);
+            ContainerStateCache cache = context.getBean(ContainerStateCache.class);
+            ContainerJobService jobService = context.getBean(ContainerJobService.class);
+            StatusListPages statusListPages = context.getBean(StatusListPages.class);
+
+            // Auf den ersten Abgleich beim Start warten und alle Container für Discord freigeben (über die REST-API)
+            while (cache.findAll().isEmpty()) {
+                Thread.sleep(100);
+            }
+            List<String> namen = cache.findAll().stream().map(ContainerInfo::getName).sorted().toList();
+            for (String name : namen) {
+                send(httpClient, HttpRequest.newBuilder(URI.create(baseUrl + "/" + name + "/discord-enable"))
+                        .PUT(HttpRequest.BodyPublishers.noBody()).build());
+            }
+            System.out.println("Lasttest: " + namen.size() + " Container, " + concurrency + " parallele Clients, "
+                    + durationSeconds + " s, Docker-Latenz " + settings.latency().toMillis() + "+"
+                    + settings.jitter().toMillis() + " ms, Fehlerrate " + settings.errorRate());
+
+            Messung jobs = new Messung("job start/stop (bis Zielzustand)");
+            Map<Messung, Szenario> szenarien = new LinkedHashMap<>();
+            szenarien.put(new Messung("REST PUT /{name}/players"), () -> {
+                String body = "{\"currentPlayers\":" + ThreadLocalRandom.current().nextInt(0, 20) + "}";
+                return send(httpClient, HttpRequest.newBuilder(URI.create(baseUrl + "/" + zufall(namen) + "/players"))
+                        .header("Content-Type", "application/json")
+                        .PUT(HttpRequest.BodyPublishers.ofString(body)).build()) == 200;
+            });
+            szenarien.put(new Messung("REST PUT /players/batch (" + batchSize + ")"), () -> {
+                StringJoiner entries = new StringJoiner(",", "[", "]");
+                for (int i = 0; i < batchSize; i++) {
+                    entries.add("{\"containerName\":\"" + zufall(namen) + "\",\"currentPlayers\":"
+                            + ThreadLocalRandom.current().nextInt(0, 20) + "}");
+                }
+                return send(httpClient, HttpRequest.newBuilder(URI.create(baseUrl + "/players/batch"))
+                        .header("Content-Type", "application/json")
+                        .PUT(HttpRequest.BodyPublishers.ofString(entries.toString())).build()) == 200;
+            });
+            szenarien.put(new Messung("REST GET /{name}/players"), () ->
+                    send(httpClient, HttpRequest.newBuilder(URI.create(baseUrl + "/" + zufall(namen) + "/players"))
+                            .GET().build()) == 200);
+            szenarien.put(new Messung("slash /getserverstatuslist (Seite)"), () ->
+                    statusListPages.seite(StatusListPages.Filter.ALLE, ThreadLocalRandom.current().nextInt(100)) != null);
+            szenarien.put(new Messung("slash /getserverstatus"), () ->
+                    dockerService.findeDiscordContainer(zufall(namen), null).isPresent());
+            szenarien.put(new Messung("slash /startserver|/stopserver"), () -> {
+                String name = zufall(namen);
+                boolean laeuft = cache.findByName(name, null).map(c -> "running".equals(c.getStatus())).orElse(false);
+                long start = System.nanoTime();
+                ContainerInfo container = laeuft
+                        ? dockerService.stoppeContainerFuerDiscord(name, null)
+                        : dockerService.starteContainerFuerDiscord(name, null);
+                jobService.verfolge(container, laeuft ? ContainerJobService.Aktion.STOP : ContainerJobService.Aktion.START,
+                        result -> jobs.erfasse(start, result.ergebnis() != ContainerJobService.Ergebnis.TIMEOUT));
+                return true;
+            });
+
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(durationSeconds);
+            List<Messung> messungen = new ArrayList<>(szenarien.keySet());
+            // Clients auf Plattform-Threads: die CPU-lastigen simulierten Commands würden sonst die Carrier-Threads
+            // der virtuellen Threads belegen, auf denen Fake-Daemon und Anwendung arbeiten
+            try (ExecutorService clients = Executors.newFixedThreadPool(concurrency)) {
+                for (int i = 0; i < concurrency; i++) {
+                    Messung messung = messungen.get(i % messungen.size());
+                    Szenario szenario = szenarien.get(messung);
+                    clients.execute(() -> {
+                        while (System.nanoTime() < deadline) {
+                            long start = System.nanoTime();
+                            boolean ok;
+                            try {
+                                ok = szenario.ausfuehren();
+                            } catch (Exception e) {
+                                ok = false;
+                            }
+                            messung.erfasse(start, ok);
+                            if (thinkMs > 0) {
+                                try {
+                                    Thread.sleep(thinkMs);
+                                } catch (InterruptedException e) {
+                                    return;
+                                }
+                            }
+                        }
+                    });
+                }
+            }
+
+            // Laufenden Start-/Stopp-Jobs Zeit zum Abschließen geben
+            Thread.sleep(settings.transitionDelay().multipliedBy(3).toMillis());
+            messungen.add(jobs);
+            bericht(messungen, durationSeconds, engine);
+        } finally {
+            Files.deleteIfExists(historyFile);
+        }
+        System.exit(0);
+    }
+
+    private static ConfigurableApplicationContext starteAnwendung(FakeDockerEngine engine, Path historyFile) {
+        return new SpringApplicationBuilder(LoadTest.class)
+                .web(WebApplicationType.SERVLET)
+                .logStartupInfo(false)
+                // Als Argumente übergeben, damit sie application.properties überschreiben
+                .run("--docker.host=" + engine.getUrl(),
+                        "--docker.hosts=",
+                        "--docker.api.version=v1.49",
+                        // Keine Anfragen an externe IP-Dienste während des Lasttests
+                        "--public-ip.providers=",
+                        "--server.port=0",
+                        "--spring.datasource.url=jdbc:h2:mem:loadtest;DB_CLOSE_DELAY=-1",
+                        "--player-history.file=" + historyFile,
+                        "--spring.main.banner-mode=off",
+                        "--logging.file.name=",
+                        "--logging.level.root=WARN");
+    }
+
+    private static int send(HttpClient httpClient, HttpRequest request) throws IOException, InterruptedException {
+        return httpClient.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+    }
+
+    private static String zufall(List<String> namen) {
+        return namen.get(ThreadLocalRandom.current().nextInt(namen.size()));
+    }
+
+    private static void bericht(List<Messung> messungen, int durationSeconds, FakeDockerEngine engine) {
+        System.out.println();
+        System.out.printf("%-38s %9s %8s %9s %9s %9s %9s %9s %9s%n",
+                "Szenario", "Anfragen", "Fehler", "req/s", "p50 ms", "p95 ms", "p99 ms", "p99.9 ms", "max ms");
+        for (Messung m : messungen) {
+            Histogram h = m.histogram;
+            System.out.printf(Locale.ROOT, "%-38s %9d %8d %9.1f %9.2f %9.2f %9.2f %9.2f %9.2f%n",
+                    m.name, h.getTotalCount(), m.fehler.sum(), h.getTotalCount() / (double) durationSeconds,
+                    h.getValueAtPercentile(50) / 1000.0, h.getValueAtPercentile(95) / 1000.0,
+                    h.getValueAtPercentile(99) / 1000.0, h.getValueAtPercentile(99.9) / 1000.0,
+                    h.getMaxValue() / 1000.0);
+        }
+        System.out.println();
+        System.out.println("Fake Docker Engine: " + engine.getRequests() + " Aufrufe, "
+                + engine.getInjectedErrors() + " eingestreute Fehler");
+    }
+}
@@ -0,0 +1,153 @@
+package com.example.startstoppbot;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.TimeGauge;
+import io.micrometer.core.instrument.Timer;
+import net.dv8tion.jda.api.JDA;
+import net.dv8tion.jda.api.Permission;
+import net.dv8tion.jda.api.events.session.ReadyEvent;
+import net.dv8tion.jda.api.hooks.ListenerAdapter;
+import net.dv8tion.jda.api.interactions.commands.DefaultMemberPermissions;
+import net.dv8tion.jda.api.interactions.commands.OptionType;
+import net.dv8tion.jda.api.interactions.commands.build.CommandData;
+import net.dv8tion.jda.api.interactions.commands.build.Commands;
+import net.dv8tion.jda.api.interactions.commands.build.OptionData;
+import org.springframework.stereotype.Component;
+
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Comparator;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Definition der Slash-Commands und Registrierung bei Discord, sobald das Gateway verbunden ist.
+ * Vor dem Hochladen werden die bei Discord hinterlegten Commands abgerufen und über einen Hash mit der
+ * Definition verglichen: ein Neustart ohne Änderungen kostet nur einen Lese-Aufruf statt eines
+ * (rate-limitierten) Überschreibens aller Commands.
+ */
+@Component
+public class DiscordCommandRegistrar extends ListenerAdapter {
+
+    private final MeterRegistry meterRegistry;
+
+    // Millisekunden vom JVM-Start bis das Gateway bereit ist (-1 = noch nicht verbunden)
+    private final AtomicLong discordBereitMs = new AtomicLong(-1);
+
+    public DiscordCommandRegistrar(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+        TimeGauge.builder("discord.ready.time", discordBereitMs, TimeUnit.MILLISECONDS, AtomicLong::get)
+                .description("Zeit vom JVM-Start bis die Discord-Verbindung bereit ist")
+                .register(meterRegistry);
+    }
+
+    static List<CommandData> definitionen() {
+        return List.of(
+                Commands.slash("getserverstatuslist", "Zeigt alle Server mit Status und Spieleranzahl")
+                        .addOptions(new OptionData(OptionType.STRING, "status", "Nur Server mit diesem Status", false)
+                                .addChoice("Laufend", StatusListPages.Filter.LAUFEND.name())
+                                .addChoice("Gestoppt", StatusListPages.Filter.GESTOPPT.name())),
+                Commands.slash("getserverstatus", "Zeigt Status eines bestimmten Servers")
+                        .addOption(OptionType.STRING, "name", "Name der Anwendung", true, true)
+                        .addOption(OptionType.INTEGER, "endpoint", "Endpoint-ID des Docker-Hosts (bei gleichen Namen)", false),
+                Commands.slash("startserver", "Startet einen Server")
+                        .addOption(OptionType.STRING, "name", "Name der Anwendung", true, true)
+                        .addOption(OptionType.INTEGER, "endpoint", "Endpoint-ID des Docker-Hosts (bei gleichen Namen)", false),
+                Commands.slash("stopserver", "Stoppt einen Server (nur Admin)")
+                        .addOption(OptionType.STRING, "name", "Name der Anwendung", true, true)
+                        .addOption(OptionType.INTEGER, "endpoint", "Endpoint-ID des Docker-Hosts (bei gleichen Namen)", false),
+                Commands.slash("getpublicip", "Zeigt die öffentliche IP-Adresse des Servers an"),
+                Commands.slash("bulkserver", "Startet/stoppt mehrere Server parallel (nur Admin)")
+                        .addOptions(new OptionData(OptionType.STRING, "aktion", "Aktion für alle ausgewählten Server", true)
+                                        .addChoice("Starten", "START")
+                                        .addChoice("Stoppen", "STOP")
+                                        .addChoice("Neustarten", "RESTART"),
+                                new OptionData(OptionType.STRING, "namen", "Namen, durch Komma getrennt", false),
+                                new OptionData(OptionType.STRING, "status", "Nur Server mit diesem Status", false)
+                                        .addChoice("Laufend", "running")
+                                        .addChoice("Gestoppt", "exited"),
+                                new OptionData(OptionType.BOOLEAN, "leer", "Nur Server ohne Spieler", false),
+                                new OptionData(OptionType.STRING, "label", "Docker-Label (key oder key=value)", false),
+                                new OptionData(OptionType.INTEGER, "endpoint", "Nur Server dieses Docker-Hosts", false))
+                        .setDefaultPermissions(DefaultMemberPermissions.enabledFor(Permission.ADMINISTRATOR))
+        );
+    }
+
+    @Override
+    public void onReady(ReadyEvent event) {
+        long uptimeMs = ManagementFactory.getRuntimeMXBean().getUptime();
+        discordBereitMs.set(uptimeMs);
+        System.out.println("Discord bereit nach " + uptimeMs + " ms (seit JVM-Start)");
+        registriere(event.getJDA());
+    }
+
+    /**
+     * Lädt die Commands nur hoch, wenn sie sich von den registrierten unterscheiden. Kann die Liste nicht
+     * abgerufen werden, wird wie früher immer hochgeladen.
+     */
+    void registriere(JDA jda) {
+        long start = System.nanoTime();
+        List<CommandData> definitionen = definitionen();
+        String soll = hash(definitionen);
+
+        jda.retrieveCommands().queue(registriert -> {
+            String ist = hash(registriert.stream().map(CommandData::fromCommand).toList());
+            if (soll.equals(ist)) {
+                System.out.println("Slash-Commands unverändert (" + kurz(soll) + ") - keine Registrierung nötig");
+                messe(start, "unchanged");
+            } else {
+                System.out.println("Slash-Commands geändert (" + kurz(ist) + " -> " + kurz(soll) + ") - registriere "
+                        + definitionen.size() + " Commands");
+                lade(jda, definitionen, start);
+            }
+        }, error -> {
+            System.err.println("Registrierte Commands nicht abrufbar (" + error.getMessage() + ") - registriere alle");
+            lade(jda, definitionen, start);
+        });
+    }
+
+    private void lade(JDA jda, List<CommandData> definitionen, long start) {
+        jda.updateCommands().addCommands(definitionen).queue(
+                success -> {
+                    System.out.println("Commands registriert!");
+                    messe(start, "updated");
+                },
+                error -> {
+                    System.err.println("Fehler: " + error);
+                    messe(start, "error");
+                });
+    }
+
+    private void messe(long start, String result) {
+        Timer.builder("discord.commands.registration")
+                .description("Dauer von Vergleich und ggf. Registrierung der Slash-Commands beim Start")
+                .tag("result", result)
+                .register(meterRegistry)
+                .record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * SHA-256 über die JSON-Form der Commands, nach Namen sortiert. Beide Seiten werden über dieselbe
+     * Serialisierung (CommandData.toData) verglichen, vom Server vergebene Felder (ID, Version) fehlen darin.
+     */
+    static String hash(List<CommandData> commands) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            commands.stream()
+                    .sorted(Comparator.comparing(CommandData::getName))
+                    .map(command -> CommandData.fromData(command.toData()).toData().toString())
+                    .forEach(json -> digest.update(json.getBytes(StandardCharsets.UTF_8)));
+            return HexFormat.of().formatHex(digest.digest());
+        } catch (NoSuchAlgorithmException e) {
+            throw new RuntimeException("SHA-256 nicht verfügbar", e);
+        }
+    }
+
+    private static String kurz(String hash) {
+        return hash.substring(0, 12);
+    }
+}
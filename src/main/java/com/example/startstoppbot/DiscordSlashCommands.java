@@ -1,18 +1,42 @@
 package com.example.startstoppbot;
 
 import com.example.startstoppbot.model.ContainerInfo;
+import com.example.startstoppbot.service.BulkActionService;
+import com.example.startstoppbot.service.ContainerJobService;
+import com.example.startstoppbot.service.ContainerNameIndex;
 import com.example.startstoppbot.service.DockerService;
 import com.example.startstoppbot.service.PublicIpService;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
 import net.dv8tion.jda.api.EmbedBuilder;
+import net.dv8tion.jda.api.entities.MessageEmbed;
+import net.dv8tion.jda.api.events.interaction.command.CommandAutoCompleteInteractionEvent;
 import net.dv8tion.jda.api.events.interaction.command.SlashCommandInteractionEvent;
+import net.dv8tion.jda.api.events.interaction.component.ButtonInteractionEvent;
 import net.dv8tion.jda.api.hooks.ListenerAdapter;
+import net.dv8tion.jda.api.interactions.commands.Command;
+import net.dv8tion.jda.api.interactions.commands.CommandInteractionPayload;
 import net.dv8tion.jda.api.interactions.commands.OptionMapping;
+import net.dv8tion.jda.api.interactions.commands.build.OptionData;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
 import java.awt.*;
 import java.time.format.DateTimeFormatter;
+import java.util.Arrays;
 import java.util.List;
+import java.util.stream.Collectors;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
 
 @Component
 public class DiscordSlashCommands extends ListenerAdapter {
@@ -23,8 +47,183 @@ public class DiscordSlashCommands extends ListenerAdapter {
     @Autowired
     private PublicIpService publicIpService;
 
+    @Autowired
+    private ContainerJobService containerJobService;
+
+    @Autowired
+    private ContainerNameIndex containerNameIndex;
+
+    @Autowired
+    private StatusListPages statusListPages;
+
+    @Autowired
+    private BulkActionService bulkActionService;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${discord.commands.max-in-flight-per-command:20}")
+    private int maxInFlightPerCommand;
+
+    @Value("${discord.commands.max-in-flight-per-container:2}")
+    private int maxInFlightPerContainer;
+
+    @Value("${discord.commands.queue-timeout-ms:10000}")
+    private long queueTimeoutMs;
+
+    // Anzahl Sperren für Container-Limits - feste Anzahl, damit beliebige Namen keinen Speicher belegen
+    private static final int CONTAINER_STRIPES = 64;
+
+    // Jede Interaktion läuft in einem eigenen virtuellen Thread, blockierende Aufrufe halten den JDA-Thread nicht auf
+    private final ExecutorService commandExecutor = Executors.newVirtualThreadPerTaskExecutor();
+    private final Map<String, Semaphore> commandPermits = new ConcurrentHashMap<>();
+    private final Semaphore[] containerPermits = new Semaphore[CONTAINER_STRIPES];
+
+    @PostConstruct
+    public void init() {
+        for (int i = 0; i < containerPermits.length; i++) {
+            containerPermits[i] = new Semaphore(maxInFlightPerContainer);
+        }
+    }
+
+    /**
+     * Nimmt die Interaktion auf dem JDA-Event-Thread nur an (deferReply) und verarbeitet sie
+     * anschließend auf einem virtuellen Thread. Discord erwartet die Bestätigung innerhalb von 3 Sekunden,
+     * die eigentliche Antwort darf danach bis zu 15 Minuten dauern.
+     */
     @Override
     public void onSlashCommandInteraction(SlashCommandInteractionEvent event) {
+        long receivedAt = System.nanoTime();
+        event.deferReply().queue();
+        commandExecutor.execute(() -> verarbeiteBegrenzt(event, receivedAt));
+    }
+
+    /**
+     * Vorschläge für die Option "name" bei jedem Tastendruck. Wird direkt auf dem JDA-Thread beantwortet:
+     * die Suche läuft nur im Speicher (ContainerNameIndex), ohne Datenbank und ohne Docker-Aufruf.
+     */
+    @Override
+    public void onCommandAutoCompleteInteraction(CommandAutoCompleteInteractionEvent event) {
+        long start = System.nanoTime();
+        List<Command.Choice> choices = List.of();
+        if ("name".equals(event.getFocusedOption().getName())) {
+            boolean multiHost = dockerService.isMultiHost();
+            choices = containerNameIndex.suche(event.getFocusedOption().getValue(), getEndpointOption(event), OptionData.MAX_CHOICES)
+                    .stream()
+                    .map(container -> new Command.Choice(buildAutocompleteLabel(container, multiHost), container.getName()))
+                    .toList();
+        }
+        event.replyChoices(choices).queue();
+
+        Timer.builder("discord.autocomplete.duration")
+                .description("Dauer für die Berechnung der Autocomplete-Vorschläge")
+                .tag("command", event.getName())
+                .register(meterRegistry)
+                .record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+    }
+
+    private String buildAutocompleteLabel(ContainerInfo container, boolean multiHost) {
+        StringBuilder label = new StringBuilder()
+                .append(getStatusEmoji(container.getStatus())).append(' ')
+                .append(container.getName());
+        if (multiHost) {
+            label.append(" [").append(container.getEndpointId()).append(']');
+        }
+        label.append(" - ").append(container.getStatus());
+        if (container.getCurrentPlayers() != null) {
+            label.append(" | ").append(container.getCurrentPlayers());
+            if (container.getMaxPlayers() != null) {
+                label.append('/').append(container.getMaxPlayers());
+            }
+            label.append(" Spieler");
+        }
+        // Discord begrenzt den Anzeigenamen einer Auswahl auf 100 Zeichen
+        return label.length() > OptionData.MAX_CHOICE_NAME_LENGTH
+                ? label.substring(0, OptionData.MAX_CHOICE_NAME_LENGTH)
+                : label.toString();
+    }
+
+    private void verarbeiteBegrenzt(SlashCommandInteractionEvent event, long receivedAt) {
+        String command = event.getName();
+        Semaphore commandSemaphore = commandPermits.computeIfAbsent(command, c -> new Semaphore(maxInFlightPerCommand));
+        Semaphore containerSemaphore = getContainerSemaphore(event);
+
+        long deadline = receivedAt + TimeUnit.MILLISECONDS.toNanos(queueTimeoutMs);
+        boolean commandAcquired = false;
+        boolean containerAcquired = false;
+        String outcome = "error";
+        try {
+            commandAcquired = commandSemaphore.tryAcquire(deadline - System.nanoTime(), TimeUnit.NANOSECONDS);
+            containerAcquired = commandAcquired && (containerSemaphore == null
+                    || containerSemaphore.tryAcquire(deadline - System.nanoTime(), TimeUnit.NANOSECONDS));
+
+            if (!containerAcquired) {
+                Counter.builder("discord.commands.rejected")
+                        .description("Abgelehnte Slash-Commands wegen zu vieler gleichzeitiger Anfragen")
+                        .tag("command", command)
+                        .register(meterRegistry)
+                        .increment();
+                event.getHook().editOriginal("⏳ Zu viele gleichzeitige Anfragen - bitte in einigen Sekunden erneut versuchen.").queue();
+                outcome = "rejected";
+                return;
+            }
+
+            Timer.builder("discord.commands.queue.delay")
+                    .description("Wartezeit vom Eingang eines Slash-Commands bis zum Start der Verarbeitung")
+                    .tag("command", command)
+                    .register(meterRegistry)
+                    .record(System.nanoTime() - receivedAt, TimeUnit.NANOSECONDS);
+
+            verarbeiteCommand(event, receivedAt);
+            outcome = "success";
+
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (Exception e) {
+            System.err.println("Fehler bei Slash-Command " + command + ": " + e.getMessage());
+        } finally {
+            // Vom Eingang bis zur Antwort (bei Start/Stopp die erste Rückmeldung, siehe discord.commands.completion)
+            Timer.builder("discord.commands.duration")
+                    .description("Dauer vom Eingang eines Slash-Commands bis zur Antwort")
+                    .tag("command", command)
+                    .tag("outcome", outcome)
+                    .register(meterRegistry)
+                    .record(System.nanoTime() - receivedAt, TimeUnit.NANOSECONDS);
+            if (containerAcquired && containerSemaphore != null) {
+                containerSemaphore.release();
+            }
+            if (commandAcquired) {
+                commandSemaphore.release();
+            }
+        }
+    }
+
+    private Semaphore getContainerSemaphore(SlashCommandInteractionEvent event) {
+        OptionMapping containerOption = event.getOption("name");
+        if (containerOption == null) {
+            return null;
+        }
+
+        // Über den aufgelösten Container sperren - gleicher Name auf zwei Hosts teilt sich sonst ein Limit.
+        // Unbekannte oder mehrdeutige Eingaben landen über den Namen in einem Streifen (sie rufen Docker nicht auf)
+        String eingabe = containerOption.getAsString();
+        Object schluessel;
+        try {
+            schluessel = containerNameIndex.aufloesen(eingabe, getEndpointOption(event))
+                    .<Object>map(ContainerInfo::key)
+                    .orElse(eingabe.toLowerCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            schluessel = eingabe.toLowerCase(Locale.ROOT);
+        }
+        return containerPermits[Math.floorMod(schluessel.hashCode(), containerPermits.length)];
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        commandExecutor.shutdown();
+    }
+
+    private void verarbeiteCommand(SlashCommandInteractionEvent event, long receivedAt) {
         switch (event.getName()) {
             case "getserverstatuslist":
                 handleGetServerStatusList(event);
@@ -33,20 +232,21 @@ public class DiscordSlashCommands extends ListenerAdapter {
                 handleGetServerStatus(event);
                 break;
             case "startserver":
-                handleStartServer(event);
+                handleStartServer(event, receivedAt);
                 break;
             case "stopserver":
-                handleStopServer(event);
+                handleStopServer(event, receivedAt);
                 break;
             case "getpublicip":
                 handleGetPublicIp(event);
                 break;
+            case "bulkserver":
+                handleBulkServer(event);
+                break;
         }
     }
 
     private void handleGetPublicIp(SlashCommandInteractionEvent event) {
-        event.deferReply().queue();
-
         try {
             String publicIp = publicIpService.getPublicIp();
 
@@ -70,48 +270,43 @@ public class DiscordSlashCommands extends ListenerAdapter {
     }
 
     private void handleGetServerStatusList(SlashCommandInteractionEvent event) {
-        event.deferReply().queue();
-
         try {
-            List<ContainerInfo> containers = dockerService.getDiscordEnabledContainers();
-
-            if (containers.isEmpty()) {
-                event.getHook().editOriginal("Keine Container für Discord freigegeben.").queue();
-                return;
-            }
-
-            EmbedBuilder embedBuilder = new EmbedBuilder()
-                    .setTitle("🖥️ Server Status Liste")
-                    .setColor(Color.BLUE)
-                    .setDescription("Alle für Discord freigegebene Container:");
-
-            StringBuilder statusList = new StringBuilder();
-            for (ContainerInfo container : containers) {
-                String statusEmoji = getStatusEmoji(container.getStatus());
-                String playerInfo = "";
-
-                if (container.getCurrentPlayers() != null) {
-                    playerInfo = String.format(" | 👥 %d", container.getCurrentPlayers());
-                    if (container.getMaxPlayers() != null) {
-                        playerInfo += "/" + container.getMaxPlayers();
-                    }
-                }
+            OptionMapping statusOption = event.getOption("status");
+            StatusListPages.Filter filter = statusOption != null
+                    ? StatusListPages.Filter.valueOf(statusOption.getAsString())
+                    : StatusListPages.Filter.ALLE;
 
-                statusList.append(String.format("%s **%s** - %s%s\n",
-                        statusEmoji, container.getName(), container.getStatus(), playerInfo));
-            }
-
-            embedBuilder.addField("Container", statusList.toString(), false);
-            event.getHook().editOriginalEmbeds(embedBuilder.build()).queue();
+            StatusListPages.Seite seite = statusListPages.seite(filter, 0);
+            event.getHook().editOriginalEmbeds(seite.embed()).setComponents(seite.komponenten()).queue();
 
         } catch (Exception e) {
             event.getHook().editOriginal("❌ Fehler beim Abrufen der Container-Liste: " + e.getMessage()).queue();
         }
     }
 
-    private void handleGetServerStatus(SlashCommandInteractionEvent event) {
-        event.deferReply().queue();
+    /**
+     * Blättern in /getserverstatuslist. Die Seiten sind vorgerendert, daher wird direkt auf dem JDA-Thread
+     * geantwortet (ohne deferEdit); 🔄 liefert dieselbe Seite mit dem aktuellen Stand.
+     */
+    @Override
+    public void onButtonInteraction(ButtonInteractionEvent event) {
+        Map.Entry<StatusListPages.Filter, Integer> ziel = StatusListPages.parseButtonId(event.getComponentId());
+        if (ziel == null) {
+            return;
+        }
+        long start = System.nanoTime();
+        StatusListPages.Seite seite = statusListPages.seite(ziel.getKey(), ziel.getValue());
+        event.editMessageEmbeds(seite.embed()).setComponents(seite.komponenten()).queue();
+
+        Timer.builder("discord.commands.duration")
+                .description("Dauer vom Eingang eines Slash-Commands bis zur Antwort")
+                .tag("command", "getserverstatuslist-page")
+                .tag("outcome", "success")
+                .register(meterRegistry)
+                .record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+    }
 
+    private void handleGetServerStatus(SlashCommandInteractionEvent event) {
         OptionMapping containerOption = event.getOption("name");
         if (containerOption == null) {
             event.getHook().editOriginal("❌ Container-Name ist erforderlich.").queue();
@@ -121,14 +316,10 @@ public class DiscordSlashCommands extends ListenerAdapter {
         String containerName = containerOption.getAsString();
 
         try {
-            List<ContainerInfo> containers = dockerService.getDiscordEnabledContainers();
-            ContainerInfo container = containers.stream()
-                    .filter(c -> c.getName().equalsIgnoreCase(containerName))
-                    .findFirst()
-                    .orElse(null);
+            ContainerInfo container = containerNameIndex.aufloesen(containerName, getEndpointOption(event)).orElse(null);
 
             if (container == null) {
-                event.getHook().editOriginal("❌ Container '" + containerName + "' nicht gefunden oder nicht für Discord freigegeben.").queue();
+                meldeNichtGefunden(event, containerName);
                 return;
             }
 
@@ -163,9 +354,7 @@ public class DiscordSlashCommands extends ListenerAdapter {
         }
     }
 
-    private void handleStartServer(SlashCommandInteractionEvent event) {
-        event.deferReply().queue();
-
+    private void handleStartServer(SlashCommandInteractionEvent event, long receivedAt) {
         OptionMapping containerOption = event.getOption("name");
         if (containerOption == null) {
             event.getHook().editOriginal("❌ Container-Name ist erforderlich.").queue();
@@ -175,16 +364,27 @@ public class DiscordSlashCommands extends ListenerAdapter {
         String containerName = containerOption.getAsString();
 
         try {
-            dockerService.starteContainerFuerDiscord(containerName);
+            ContainerInfo gefunden = containerNameIndex.aufloesen(containerName, getEndpointOption(event)).orElse(null);
+            if (gefunden == null) {
+                meldeNichtGefunden(event, containerName);
+                return;
+            }
+            // Ab hier der aufgelöste Name (Eingabe kann abweichende Groß-/Kleinschreibung enthalten)
+            String name = gefunden.getName();
+            ContainerInfo container = dockerService.starteContainerFuerDiscord(name, gefunden.getEndpointId());
 
             EmbedBuilder embedBuilder = new EmbedBuilder()
-                    .setTitle("✅ Server gestartet")
-                    .setColor(Color.GREEN)
-                    .setDescription("Container **" + containerName + "** wird gestartet...")
-                    .addField("ℹ️ Hinweis", "Es kann einige Sekunden dauern, bis der Server vollständig hochgefahren ist.", false);
+                    .setTitle("⏳ Server wird gestartet")
+                    .setColor(Color.YELLOW)
+                    .setDescription("Container **" + name + "** wird gestartet...")
+                    .addField("ℹ️ Hinweis", "Diese Nachricht wird aktualisiert, sobald der Server läuft.", false);
 
             event.getHook().editOriginalEmbeds(embedBuilder.build()).queue();
 
+            // Ergebnis des Starts nachträglich in dieselbe Nachricht schreiben
+            containerJobService.verfolge(container, ContainerJobService.Aktion.START,
+                    result -> meldeJobErgebnis(event, name, result, receivedAt));
+
         } catch (Exception e) {
             EmbedBuilder embedBuilder = new EmbedBuilder()
                     .setTitle("❌ Fehler beim Starten")
@@ -196,9 +396,7 @@ public class DiscordSlashCommands extends ListenerAdapter {
         }
     }
 
-    private void handleStopServer(SlashCommandInteractionEvent event) {
-        event.deferReply().queue();
-
+    private void handleStopServer(SlashCommandInteractionEvent event, long receivedAt) {
         OptionMapping containerOption = event.getOption("name");
         if (containerOption == null) {
             event.getHook().editOriginal("❌ Container-Name ist erforderlich.").queue();
@@ -208,16 +406,26 @@ public class DiscordSlashCommands extends ListenerAdapter {
         String containerName = containerOption.getAsString();
 
         try {
-            dockerService.stoppeContainerFuerDiscord(containerName);
+            ContainerInfo gefunden = containerNameIndex.aufloesen(containerName, getEndpointOption(event)).orElse(null);
+            if (gefunden == null) {
+                meldeNichtGefunden(event, containerName);
+                return;
+            }
+            // Ab hier der aufgelöste Name (Eingabe kann abweichende Groß-/Kleinschreibung enthalten)
+            String name = gefunden.getName();
+            ContainerInfo container = dockerService.stoppeContainerFuerDiscord(name, gefunden.getEndpointId());
 
             EmbedBuilder embedBuilder = new EmbedBuilder()
-                    .setTitle("🛑 Server gestoppt")
+                    .setTitle("⏳ Server wird gestoppt")
                     .setColor(Color.ORANGE)
-                    .setDescription("Container **" + containerName + "** wird gestoppt...")
-                    .addField("ℹ️ Hinweis", "Es kann einige Sekunden dauern, bis der Server vollständig heruntergefahren ist.", false);
+                    .setDescription("Container **" + name + "** wird gestoppt...")
+                    .addField("ℹ️ Hinweis", "Diese Nachricht wird aktualisiert, sobald der Server beendet ist.", false);
 
             event.getHook().editOriginalEmbeds(embedBuilder.build()).queue();
 
+            containerJobService.verfolge(container, ContainerJobService.Aktion.STOP,
+                    result -> meldeJobErgebnis(event, name, result, receivedAt));
+
         } catch (Exception e) {
             EmbedBuilder embedBuilder = new EmbedBuilder()
                     .setTitle("❌ Fehler beim Stoppen")
@@ -229,7 +437,160 @@ public class DiscordSlashCommands extends ListenerAdapter {
         }
     }
 
-    private String getStatusEmoji(String status) {
+    /**
+     * Sammelaktion (nur Admin, siehe Default-Berechtigung beim Registrieren) - wie die übrigen Commands nur für
+     * Discord-freigegebene Container. Die Antwort kommt, wenn alle Docker-Aufrufe abgeschlossen sind.
+     */
+    private void handleBulkServer(SlashCommandInteractionEvent event) {
+        BulkActionService.Aktion aktion = BulkActionService.Aktion.valueOf(event.getOption("aktion").getAsString());
+        OptionMapping namenOption = event.getOption("namen");
+        OptionMapping statusOption = event.getOption("status");
+        OptionMapping leerOption = event.getOption("leer");
+        OptionMapping labelOption = event.getOption("label");
+
+        List<String> namen = namenOption != null
+                ? Arrays.stream(namenOption.getAsString().split(",")).map(String::trim).filter(n -> !n.isEmpty()).toList()
+                : null;
+        BulkActionService.Auswahl auswahl = new BulkActionService.Auswahl(namen, getEndpointOption(event),
+                statusOption != null ? statusOption.getAsString() : null,
+                leerOption != null && leerOption.getAsBoolean() ? 0 : null,
+                labelOption != null ? labelOption.getAsString() : null,
+                true);
+        if (!auswahl.hatNamen() && auswahl.endpointId() == null && auswahl.status() == null
+                && auswahl.maxPlayers() == null && auswahl.label() == null) {
+            event.getHook().editOriginal("❌ Bitte Namen oder mindestens einen Filter (status, leer, label, endpoint) angeben.").queue();
+            return;
+        }
+
+        try {
+            event.getHook().editOriginalEmbeds(buildBulkResultEmbed(bulkActionService.ausfuehren(aktion, auswahl))).queue();
+        } catch (Exception e) {
+            event.getHook().editOriginal("❌ Fehler bei der Sammelaktion: " + e.getMessage()).queue();
+        }
+    }
+
+    private MessageEmbed buildBulkResultEmbed(BulkActionService.BulkErgebnis ergebnis) {
+        String titel = switch (ergebnis.aktion()) {
+            case START -> "Starten";
+            case STOP -> "Stoppen";
+            case RESTART -> "Neustarten";
+        };
+        EmbedBuilder embedBuilder = new EmbedBuilder()
+                .setTitle("📦 Sammelaktion: " + titel)
+                .setColor(ergebnis.fehlgeschlagen() > 0 ? Color.ORANGE : Color.GREEN)
+                .addField("✅ Erfolgreich", String.valueOf(ergebnis.erfolgreich()), true)
+                .addField("⏭️ Übersprungen", String.valueOf(ergebnis.uebersprungen()), true)
+                .addField("❌ Fehlgeschlagen", String.valueOf(ergebnis.fehlgeschlagen()), true)
+                .addField("⏱️ Dauer", String.format("%.1f s", ergebnis.dauerMs() / 1000.0), true);
+
+        if (ergebnis.ergebnisse().isEmpty()) {
+            return embedBuilder.setDescription("Keine passenden Container gefunden.").build();
+        }
+        StringBuilder zeilen = new StringBuilder();
+        int angezeigt = 0;
+        for (BulkActionService.ContainerErgebnis e : ergebnis.ergebnisse()) {
+            String emoji = switch (e.ergebnis()) {
+                case "done" -> "✅";
+                case "skipped" -> "⏭️";
+                default -> "❌";
+            };
+            StringBuilder zeile = new StringBuilder().append(emoji).append(" **").append(e.name()).append("**");
+            if ("done".equals(e.ergebnis())) {
+                zeile.append(String.format(" - %.1f s", e.dauerMs() / 1000.0));
+            } else if (e.meldung() != null) {
+                zeile.append(" - ").append(e.meldung());
+            } else if ("not_found".equals(e.ergebnis())) {
+                zeile.append(" - nicht gefunden");
+            }
+            zeile.append('\n');
+            // Platz für den Hinweis auf weitere Container lassen
+            if (zeilen.length() + zeile.length() > MessageEmbed.DESCRIPTION_MAX_LENGTH - 50) {
+                zeilen.append("… und ").append(ergebnis.ergebnisse().size() - angezeigt).append(" weitere");
+                break;
+            }
+            zeilen.append(zeile);
+            angezeigt++;
+        }
+        return embedBuilder.setDescription(zeilen.toString()).build();
+    }
+
+    /**
+     * Schreibt das Job-Ergebnis in die ursprüngliche Antwort und misst die Zeit vom Eingang des Commands bis dahin
+     */
+    private void meldeJobErgebnis(SlashCommandInteractionEvent event, String containerName,
+                                  ContainerJobService.JobResult result, long receivedAt) {
+        event.getHook().editOriginalEmbeds(buildJobResultEmbed(containerName, result)).queue();
+        Timer.builder("discord.commands.completion")
+                .description("Dauer vom Eingang eines Start-/Stopp-Commands bis zur Meldung des Ergebnisses")
+                .tag("command", event.getName())
+                .tag("result", result.ergebnis().name().toLowerCase())
+                .register(meterRegistry)
+                .record(System.nanoTime() - receivedAt, TimeUnit.NANOSECONDS);
+    }
+
+    private MessageEmbed buildJobResultEmbed(String containerName, ContainerJobService.JobResult result) {
+        String title;
+        Color color;
+        switch (result.ergebnis()) {
+            case RUNNING:
+            case HEALTHY:
+                title = "✅ Server gestartet";
+                color = Color.GREEN;
+                break;
+            case STOPPED:
+                title = "🛑 Server gestoppt";
+                color = Color.ORANGE;
+                break;
+            case UNHEALTHY:
+                title = "⚠️ Server läuft, Healthcheck fehlgeschlagen";
+                color = Color.YELLOW;
+                break;
+            case EXITED:
+                title = "❌ Server nach dem Start beendet";
+                color = Color.RED;
+                break;
+            default:
+                title = "⌛ Zeitüberschreitung";
+                color = Color.GRAY;
+                break;
+        }
+
+        EmbedBuilder embedBuilder = new EmbedBuilder()
+                .setTitle(title)
+                .setColor(color)
+                .setDescription("Container **" + containerName + "**: " + result.meldung())
+                .addField("⏱️ Dauer", String.format("%.1f s", result.dauer().toMillis() / 1000.0), true);
+
+        if (result.exitCode() != null) {
+            embedBuilder.addField("Exit-Code", result.exitCode().toString(), true);
+        }
+        return embedBuilder.build();
+    }
+
+    /**
+     * Antwort bei unbekanntem Namen, mit den ähnlichsten Namen als Vorschlag
+     */
+    private void meldeNichtGefunden(SlashCommandInteractionEvent event, String containerName) {
+        String meldung = "❌ Container '" + containerName + "' nicht gefunden oder nicht für Discord freigegeben.";
+        List<ContainerInfo> vorschlaege = containerNameIndex.suche(containerName, getEndpointOption(event), 5);
+        if (!vorschlaege.isEmpty()) {
+            meldung += "\nMeintest du: " + vorschlaege.stream()
+                    .map(c -> "**" + c.getName() + "**")
+                    .distinct()
+                    .collect(Collectors.joining(", ")) + "?";
+        }
+        event.getHook().editOriginal(meldung).queue();
+    }
+
+    /**
+     * Optionale Endpoint-ID - nur nötig, wenn derselbe Container-Name auf mehreren Hosts existiert
+     */
+    private Integer getEndpointOption(CommandInteractionPayload event) {
+        OptionMapping endpointOption = event.getOption("endpoint");
+        return endpointOption != null ? endpointOption.getAsInt() : null;
+    }
+
+    static String getStatusEmoji(String status) {
         switch (status.toLowerCase()) {
             case "running":
                 return "🟢";
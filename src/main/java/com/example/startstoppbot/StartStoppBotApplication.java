@@ -2,17 +2,15 @@ package com.example.startstoppbot;
 
 import io.swagger.v3.oas.annotations.OpenAPIDefinition;
 import io.swagger.v3.oas.annotations.info.Info;
-import net.dv8tion.jda.api.JDA;
 import net.dv8tion.jda.api.JDABuilder;
-import net.dv8tion.jda.api.interactions.commands.OptionType;
-import net.dv8tion.jda.api.interactions.commands.build.Commands;
-import net.dv8tion.jda.api.requests.GatewayIntent;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.CommandLineRunner;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
 import org.springframework.context.annotation.Bean;
+import org.springframework.context.event.EventListener;
 import org.springframework.scheduling.annotation.EnableScheduling;
 import org.springframework.web.servlet.config.annotation.CorsRegistry;
 import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
@@ -36,32 +34,40 @@ public class StartStoppBotApplication implements CommandLineRunner {
     @Autowired
     private DiscordSlashCommands slashCommands;
 
+    @Autowired
+    private DiscordCommandRegistrar commandRegistrar;
+
     public static void main(String[] args) {
         SpringApplication.run(StartStoppBotApplication.class, args);
     }
 
+    /**
+     * Baut die Discord-Verbindung im Hintergrund auf: REST-API und Scheduler laufen sofort, Slash-Commands
+     * werden registriert, sobald das Gateway bereit ist (DiscordCommandRegistrar).
+     */
     @Override
-    public void run(String... args) throws Exception {
-        JDA jda = JDABuilder.createDefault(botToken)
-                .enableIntents(Collections.emptyList())
-                .addEventListeners(slashCommands)
-                .build();
-
-        jda.awaitReady(); // Warten bis JDA bereit ist
-        // Slash Commands registrieren
-        jda.updateCommands().addCommands(
-                Commands.slash("getserverstatuslist", "Zeigt alle Server mit Status und Spieleranzahl"),
-                Commands.slash("getserverstatus", "Zeigt Status eines bestimmten Servers")
-                        .addOption(OptionType.STRING, "name", "Name der Anwendung", true),
-                Commands.slash("startserver", "Startet einen Server")
-                        .addOption(OptionType.STRING, "name", "Name der Anwendung", true),
-                Commands.slash("stopserver", "Stoppt einen Server (nur Admin)")
-                        .addOption(OptionType.STRING, "name", "Name der Anwendung", true),
-                Commands.slash("getpublicip", "Zeigt die öffentliche IP-Adresse des Servers an")
-        ).queue(success -> System.out.println("Commands registriert!"),
-                error -> System.err.println("Fehler: " + error));
+    public void run(String... args) {
+        Thread.ofVirtual().name("discord-connect").start(() -> {
+            try {
+                JDABuilder.createDefault(botToken)
+                        .enableIntents(Collections.emptyList())
+                        .addEventListeners(slashCommands, commandRegistrar)
+                        .build();
+                System.out.println("Discord Bot gestartet - Verbindung wird aufgebaut");
+            } catch (Exception e) {
+                // Ohne Discord weiterlaufen: REST-API, Auto-Stopp und Abgleich bleiben verfügbar
+                System.err.println("Discord-Verbindung fehlgeschlagen: " + e.getMessage());
+            }
+        });
+    }
 
-        System.out.println("Discord Bot gestartet!");
+    /**
+     * Startzeit bis REST-API und Scheduler bereit sind (auch als Metrik application.ready.time);
+     * die Discord-Verbindung folgt unabhängig davon (discord.ready.time)
+     */
+    @EventListener
+    public void onApplicationReady(ApplicationReadyEvent event) {
+        System.out.println("Anwendung bereit nach " + event.getTimeTaken().toMillis() + " ms");
     }
 
     @Bean
@@ -71,7 +77,9 @@ public class StartStoppBotApplication implements CommandLineRunner {
             public void addCorsMappings(CorsRegistry registry) {
                 registry.addMapping("/**")
                         .allowedOrigins("*")
-                        .allowedMethods("GET", "POST", "PUT", "DELETE");
+                        .allowedMethods("GET", "POST", "PUT", "DELETE")
+                        // Für Dashboards im Browser: bedingte Abfragen und Seitenanzahl
+                        .exposedHeaders("ETag", "X-Total-Count");
             }
         };
     }
@@ -0,0 +1,250 @@
+package com.example.startstoppbot;
+
+import com.example.startstoppbot.model.ContainerInfo;
+import com.example.startstoppbot.model.ContainerKey;
+import com.example.startstoppbot.service.ContainerStateCache;
+import com.example.startstoppbot.service.DockerHostRegistry;
+import jakarta.annotation.PostConstruct;
+import net.dv8tion.jda.api.EmbedBuilder;
+import net.dv8tion.jda.api.entities.MessageEmbed;
+import net.dv8tion.jda.api.interactions.components.ActionRow;
+import net.dv8tion.jda.api.interactions.components.buttons.Button;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.awt.*;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Vorgerenderte Seiten für /getserverstatuslist. Die Zeile je Container wird bei dessen Änderung im
+ * ContainerStateCache formatiert; die Aufteilung in Seiten erst beim nächsten Abruf nach einer Änderung,
+ * und jede Seite (Embed und Blätter-Buttons) beim ersten Abruf. Bis zur nächsten Änderung kosten
+ * Command und Blättern nur einen Zugriff auf die fertige Seite.
+ */
+@Component
+public class StatusListPages implements ContainerStateCache.Listener {
+
+    // Discord begrenzt ein Embed-Feld auf 1024 Zeichen
+    private static final int MAX_FIELD_LENGTH = MessageEmbed.VALUE_MAX_LENGTH;
+
+    static final String BUTTON_PREFIX = "statuslist";
+
+    private final ContainerStateCache containerStateCache;
+    private final DockerHostRegistry dockerHostRegistry;
+    private final int pageSize;
+
+    // Formatierte Zeile je Discord-freigegebenem Container
+    private final Map<ContainerKey, String> zeilen = new ConcurrentHashMap<>();
+    private volatile Map<Filter, Seiten> seiten = new EnumMap<>(Filter.class);
+    private volatile boolean veraltet = true;
+
+    public enum Filter {
+        ALLE("Alle für Discord freigegebene Container:", "Keine Container für Discord freigegeben."),
+        LAUFEND("Laufende Container:", "Keine laufenden Container."),
+        GESTOPPT("Nicht laufende Container:", "Keine gestoppten Container.");
+
+        private final String beschreibung;
+        private final String leer;
+
+        Filter(String beschreibung, String leer) {
+            this.beschreibung = beschreibung;
+            this.leer = leer;
+        }
+
+        private boolean passt(ContainerInfo container) {
+            boolean laeuft = "running".equalsIgnoreCase(container.getStatus());
+            return switch (this) {
+                case ALLE -> true;
+                case LAUFEND -> laeuft;
+                case GESTOPPT -> !laeuft;
+            };
+        }
+    }
+
+    /**
+     * Fertige Seite: Embed und Buttons zum Blättern (leer, wenn alles auf eine Seite passt)
+     */
+    public record Seite(MessageEmbed embed, List<ActionRow> komponenten) {
+    }
+
+    /**
+     * Aufteilung eines Filters in Seiten; die Seiten selbst werden beim ersten Abruf gerendert
+     */
+    final class Seiten {
+        private final Filter filter;
+        private final List<String> inhalte;
+        private final int container;
+        private final AtomicReferenceArray<Seite> gerendert;
+
+        private Seiten(Filter filter, List<String> inhalte, int container) {
+            this.filter = filter;
+            this.inhalte = inhalte;
+            this.container = container;
+            this.gerendert = new AtomicReferenceArray<>(Math.max(1, inhalte.size()));
+        }
+
+        Seite get(int seite) {
+            int index = Math.max(0, Math.min(seite, gerendert.length() - 1));
+            Seite result = gerendert.get(index);
+            if (result == null) {
+                // Gleichzeitiges Rendern derselben Seite ist harmlos - beide Ergebnisse sind gleich
+                result = rendere(filter, inhalte, index, container);
+                gerendert.set(index, result);
+            }
+            return result;
+        }
+    }
+
+    public StatusListPages(ContainerStateCache containerStateCache, DockerHostRegistry dockerHostRegistry,
+                           @Value("${discord.status-list.page-size:15}") int pageSize) {
+        this.containerStateCache = containerStateCache;
+        this.dockerHostRegistry = dockerHostRegistry;
+        this.pageSize = pageSize;
+    }
+
+    @PostConstruct
+    public void init() {
+        containerStateCache.addListener(this);
+    }
+
+    @Override
+    public void geaendert(ContainerInfo vorher, ContainerInfo nachher) {
+        if (istFreigegeben(vorher) && !istFreigegeben(nachher)) {
+            zeilen.remove(vorher.key());
+        }
+        if (istFreigegeben(nachher)) {
+            zeilen.put(nachher.key(), formatiereZeile(nachher, dockerHostRegistry.isMultiHost()));
+        }
+        if (istFreigegeben(vorher) || istFreigegeben(nachher)) {
+            veraltet = true;
+        }
+    }
+
+    private static boolean istFreigegeben(ContainerInfo container) {
+        return container != null && Boolean.TRUE.equals(container.getDiscordEnabled());
+    }
+
+    /**
+     * @param seite 0-basiert; außerhalb des gültigen Bereichs wird die nächstgelegene Seite geliefert
+     */
+    public Seite seite(Filter filter, int seite) {
+        return aktuelleSeiten().get(filter).get(seite);
+    }
+
+    /**
+     * @return Filter und Seite aus der ID eines Blätter-Buttons, oder null bei fremden Buttons
+     */
+    static Map.Entry<Filter, Integer> parseButtonId(String buttonId) {
+        String[] teile = buttonId.split(":");
+        if (teile.length < 3 || !BUTTON_PREFIX.equals(teile[0])) {
+            return null;
+        }
+        try {
+            return Map.entry(Filter.valueOf(teile[1]), Integer.parseInt(teile[2]));
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    private Map<Filter, Seiten> aktuelleSeiten() {
+        if (veraltet) {
+            synchronized (this) {
+                if (veraltet) {
+                    // Vor dem Lesen zurücksetzen: eine Änderung während des Aufbaus markiert die Seiten erneut
+                    veraltet = false;
+                    seiten = baueAlle(containerStateCache.findByDiscordEnabledTrue());
+                }
+            }
+        }
+        return seiten;
+    }
+
+    /**
+     * Teilt die Container aller Filter in Seiten (paketsichtbar für die JMH-Benchmarks)
+     */
+    Map<Filter, Seiten> baueAlle(List<ContainerInfo> containers) {
+        boolean multiHost = dockerHostRegistry.isMultiHost();
+        Map<Filter, Seiten> result = new EnumMap<>(Filter.class);
+        for (Filter filter : Filter.values()) {
+            List<String> inhalte = new ArrayList<>();
+            StringBuilder aktuell = new StringBuilder();
+            int anzahl = 0;
+            int gesamt = 0;
+            for (ContainerInfo container : containers) {
+                if (!filter.passt(container)) {
+                    continue;
+                }
+                String zeile = zeilen.computeIfAbsent(container.key(), key -> formatiereZeile(container, multiHost));
+                // Höchstens pageSize Einträge und höchstens 1024 Zeichen je Seite
+                if (anzahl > 0 && (anzahl >= pageSize || aktuell.length() + zeile.length() > MAX_FIELD_LENGTH)) {
+                    inhalte.add(aktuell.toString());
+                    aktuell.setLength(0);
+                    anzahl = 0;
+                }
+                aktuell.append(zeile);
+                anzahl++;
+                gesamt++;
+            }
+            if (anzahl > 0) {
+                inhalte.add(aktuell.toString());
+            }
+            result.put(filter, new Seiten(filter, List.copyOf(inhalte), gesamt));
+        }
+        return result;
+    }
+
+    private static String formatiereZeile(ContainerInfo container, boolean multiHost) {
+        StringBuilder zeile = new StringBuilder(64)
+                .append(DiscordSlashCommands.getStatusEmoji(container.getStatus()))
+                .append(" **").append(container.getName()).append("**");
+        if (multiHost) {
+            zeile.append(" [").append(container.getEndpointId()).append(']');
+        }
+        zeile.append(" - ").append(container.getStatus());
+        if (container.getCurrentPlayers() != null) {
+            zeile.append(" | 👥 ").append(container.getCurrentPlayers());
+            if (container.getMaxPlayers() != null) {
+                zeile.append('/').append(container.getMaxPlayers());
+            }
+        }
+        return zeile.append('\n').toString();
+    }
+
+    private static Seite rendere(Filter filter, List<String> inhalte, int seite, int container) {
+        EmbedBuilder embedBuilder = new EmbedBuilder()
+                .setTitle("🖥️ Server Status Liste")
+                .setColor(Color.BLUE);
+        if (inhalte.isEmpty()) {
+            return new Seite(embedBuilder.setDescription(filter.leer).build(), List.of());
+        }
+
+        embedBuilder.setDescription(filter.beschreibung)
+                .addField("Container", inhalte.get(seite), false);
+        if (inhalte.size() > 1) {
+            embedBuilder.setFooter("Seite " + (seite + 1) + "/" + inhalte.size() + " · " + container + " Container");
+        }
+        return new Seite(embedBuilder.build(), baueButtons(filter, seite, inhalte.size()));
+    }
+
+    private static List<ActionRow> baueButtons(Filter filter, int seite, int seiten) {
+        if (seiten <= 1) {
+            return List.of();
+        }
+        // IDs müssen innerhalb einer Nachricht eindeutig sein - daher mit Position
+        return List.of(ActionRow.of(
+                Button.secondary(buttonId(filter, 0, "first"), "⏮").withDisabled(seite == 0),
+                Button.secondary(buttonId(filter, seite - 1, "prev"), "◀").withDisabled(seite == 0),
+                Button.secondary(buttonId(filter, seite, "refresh"), "🔄"),
+                Button.secondary(buttonId(filter, seite + 1, "next"), "▶").withDisabled(seite == seiten - 1),
+                Button.secondary(buttonId(filter, seiten - 1, "last"), "⏭").withDisabled(seite == seiten - 1)));
+    }
+
+    private static String buttonId(Filter filter, int seite, String position) {
+        return BUTTON_PREFIX + ":" + filter.name() + ":" + seite + ":" + position;
+    }
+}
@@ -0,0 +1,53 @@
+package com.example.startstoppbot.config;
+
+import jakarta.annotation.PostConstruct;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.ResultSet;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Stellt bestehende Datenbanken vom Primärschlüssel (name) auf (endpoint_id, name) um.
+ * ddl-auto=update legt neue Spalten an, ändert aber keine Primärschlüssel.
+ */
+@Component
+public class ContainerKeyMigration {
+
+    private static final String TABLE = "CONTAINER_INFO";
+
+    private final DataSource dataSource;
+    private final JdbcTemplate jdbcTemplate;
+
+    public ContainerKeyMigration(DataSource dataSource, JdbcTemplate jdbcTemplate) {
+        this.dataSource = dataSource;
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @PostConstruct
+    public void migriere() throws Exception {
+        List<String> primaryKeyColumns = new ArrayList<>();
+        try (Connection connection = dataSource.getConnection()) {
+            DatabaseMetaData metaData = connection.getMetaData();
+            try (ResultSet rs = metaData.getPrimaryKeys(null, null, TABLE)) {
+                while (rs.next()) {
+                    primaryKeyColumns.add(rs.getString("COLUMN_NAME").toUpperCase());
+                }
+            }
+        }
+
+        if (!primaryKeyColumns.equals(List.of("NAME"))) {
+            return;
+        }
+
+        System.out.println("Migriere Primärschlüssel von " + TABLE + " auf (endpoint_id, name)");
+        jdbcTemplate.execute("UPDATE container_info SET endpoint_id = 1 WHERE endpoint_id IS NULL");
+        jdbcTemplate.execute("ALTER TABLE container_info ALTER COLUMN endpoint_id SET NOT NULL");
+        jdbcTemplate.execute("ALTER TABLE container_info DROP PRIMARY KEY");
+        jdbcTemplate.execute("ALTER TABLE container_info ADD PRIMARY KEY (endpoint_id, name)");
+    }
+}
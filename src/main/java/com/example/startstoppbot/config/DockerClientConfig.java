@@ -0,0 +1,99 @@
+package com.example.startstoppbot.config;
+
+import com.example.startstoppbot.service.DockerApiClient;
+import com.example.startstoppbot.service.DockerHostRegistry;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+@Configuration
+public class DockerClientConfig {
+
+    @Value("${docker.host:http://192.168.178.108:2375}")
+    private String dockerHost;
+
+    // Mehrere Hosts: "1=http://host-a:2375,2=unix:///var/run/docker.sock" (leer = nur docker.host als Endpoint 1)
+    @Value("${docker.hosts:}")
+    private String dockerHosts;
+
+    @Value("${docker.api.version:v1.49}")
+    private String apiVersion;
+
+    @Value("${docker.client.max-connections:10}")
+    private int maxConnections;
+
+    @Value("${docker.client.connect-timeout-ms:2000}")
+    private long connectTimeoutMs;
+
+    @Value("${docker.client.pool-timeout-ms:2000}")
+    private long poolTimeoutMs;
+
+    @Value("${docker.client.list-timeout-ms:10000}")
+    private long listTimeoutMs;
+
+    @Value("${docker.client.inspect-timeout-ms:5000}")
+    private long inspectTimeoutMs;
+
+    // Docker wartet beim Stoppen standardmäßig bis zu 10 Sekunden auf den Container
+    @Value("${docker.client.action-timeout-ms:30000}")
+    private long actionTimeoutMs;
+
+    @Value("${docker.client.idle-timeout-ms:60000}")
+    private long idleTimeoutMs;
+
+    // Ohne Event in dieser Zeit wird der Event-Stream neu aufgebaut (0 = nie)
+    @Value("${docker.events.idle-timeout-ms:300000}")
+    private long eventIdleTimeoutMs;
+
+    @Bean(destroyMethod = "close")
+    public DockerHostRegistry dockerHostRegistry(MeterRegistry meterRegistry) {
+        Map<Integer, DockerApiClient> clients = new LinkedHashMap<>();
+        parseHosts().forEach((endpointId, host) -> {
+            System.out.println("Docker-Host für Endpoint " + endpointId + ": " + host);
+            clients.put(endpointId, new DockerApiClient(host, apiVersion, clientSettings(), meterRegistry));
+        });
+        return new DockerHostRegistry(clients);
+    }
+
+    private Map<Integer, String> parseHosts() {
+        Map<Integer, String> hosts = new LinkedHashMap<>();
+        if (dockerHosts == null || dockerHosts.isBlank()) {
+            hosts.put(1, dockerHost);
+            return hosts;
+        }
+
+        for (String entry : dockerHosts.split(",")) {
+            String trimmed = entry.trim();
+            if (trimmed.isEmpty()) {
+                continue;
+            }
+            int separator = trimmed.indexOf('=');
+            if (separator <= 0) {
+                throw new IllegalArgumentException("Ungültiger Eintrag in docker.hosts (erwartet: id=url): " + trimmed);
+            }
+            Integer endpointId = Integer.valueOf(trimmed.substring(0, separator).trim());
+            if (hosts.put(endpointId, trimmed.substring(separator + 1).trim()) != null) {
+                throw new IllegalArgumentException("Endpoint-ID mehrfach in docker.hosts: " + endpointId);
+            }
+        }
+        return hosts;
+    }
+
+    private DockerApiClient.Settings clientSettings() {
+        return new DockerApiClient.Settings(
+                maxConnections,
+                Duration.ofMillis(connectTimeoutMs),
+                Duration.ofMillis(poolTimeoutMs),
+                Duration.ofMillis(listTimeoutMs),
+                Duration.ofMillis(inspectTimeoutMs),
+                Duration.ofMillis(actionTimeoutMs),
+                Duration.ofMillis(idleTimeoutMs),
+                Duration.ofMillis(eventIdleTimeoutMs)
+        );
+    }
+}
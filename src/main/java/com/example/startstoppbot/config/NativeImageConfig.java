@@ -0,0 +1,65 @@
+package com.example.startstoppbot.config;
+
+import com.example.startstoppbot.controller.ContainerApiController;
+import com.example.startstoppbot.model.ContainerInfo;
+import com.example.startstoppbot.model.ContainerKey;
+import com.example.startstoppbot.service.DockerService;
+import net.dv8tion.jda.api.hooks.ListenerAdapter;
+import org.springframework.aot.hint.MemberCategory;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.RuntimeHintsRegistrar;
+import org.springframework.aot.hint.TypeReference;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.ImportRuntimeHints;
+
+import java.util.List;
+
+/**
+ * Hinweise für das Native Image (mvn -Pnative native:compile): Klassen und Ressourcen, die nur per Reflection
+ * erreicht werden und die Spring AOT nicht selbst erkennt. Controller-Parameter und -Rückgabetypen, JPA-Entities
+ * und die Hinweise aus springdoc registriert Spring bereits. In der JVM haben die Hinweise keine Wirkung.
+ */
+@Configuration
+@ImportRuntimeHints(NativeImageConfig.Hints.class)
+public class NativeImageConfig {
+
+    // Jackson (@JsonProperty an privaten Feldern, Lombok-Getter/-Setter) und Hibernate
+    private static final MemberCategory[] BINDING = {
+            MemberCategory.INVOKE_DECLARED_CONSTRUCTORS,
+            MemberCategory.DECLARED_FIELDS,
+            MemberCategory.INVOKE_DECLARED_METHODS
+    };
+
+    // Antworten der Docker Engine API - nicht öffentlich, daher über den Namen
+    private static final List<String> DOCKER_DTOS = List.of(
+            "com.example.startstoppbot.service.DockerService$DockerContainer",
+            "com.example.startstoppbot.service.DockerEventService$DockerEvent",
+            "com.example.startstoppbot.service.DockerEventService$EventActor");
+
+    static class Hints implements RuntimeHintsRegistrar {
+
+        @Override
+        public void registerHints(RuntimeHints hints, ClassLoader classLoader) {
+            // Auch außerhalb der Controller serialisiert (Event-Stream)
+            hints.reflection().registerType(ContainerInfo.class, BINDING);
+            hints.reflection().registerType(ContainerKey.class, BINDING);
+            // Listenelemente mit öffentlichen Feldern (ohne Getter) findet die Controller-Analyse von Spring nicht
+            hints.reflection().registerType(ContainerApiController.PlayerCountBatchResult.class, BINDING);
+            hints.reflection().registerType(ContainerApiController.BulkActionResult.class, BINDING);
+
+            hints.reflection().registerType(DockerService.DockerContainerInspect.class, BINDING);
+            hints.reflection().registerType(DockerService.ContainerState.class, BINDING);
+            hints.reflection().registerType(DockerService.ContainerHealth.class, BINDING);
+            DOCKER_DTOS.forEach(name -> hints.reflection().registerType(TypeReference.of(name), BINDING));
+
+            // JDA: ListenerAdapter sucht die on...-Methode je Event-Typ per MethodHandles.Lookup
+            hints.reflection().registerType(ListenerAdapter.class, MemberCategory.INVOKE_PUBLIC_METHODS);
+            // OkHttp (HTTP-Client von JDA) lädt die Public-Suffix-Liste aus dem Klassenpfad
+            hints.resources().registerPattern("okhttp3/internal/publicsuffix/*");
+
+            // Swagger-UI: statische Dateien aus dem WebJar, springdoc ermittelt die Version aus pom.properties
+            hints.resources().registerPattern("META-INF/resources/webjars/swagger-ui/**");
+            hints.resources().registerPattern("META-INF/maven/org.webjars/swagger-ui/pom.properties");
+        }
+    }
+}
@@ -1,17 +1,34 @@
 package com.example.startstoppbot.controller;
 
 import com.example.startstoppbot.model.ContainerInfo;
+import com.example.startstoppbot.model.ContainerKey;
 import com.example.startstoppbot.repository.ContainerInfoRepository;
+import com.example.startstoppbot.service.BulkActionService;
+import com.example.startstoppbot.service.ContainerStateCache;
+import com.example.startstoppbot.service.PlayerCountBuffer;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springdoc.core.annotations.ParameterObject;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
 import java.util.Optional;
+import java.util.function.Function;
+import java.util.function.Supplier;
 
 @RestController
 @RequestMapping("/api/containers")
@@ -19,30 +36,73 @@ import java.util.Optional;
 public class ContainerApiController {
 
     private final ContainerInfoRepository containerInfoRepository;
-
-    public ContainerApiController(ContainerInfoRepository containerInfoRepository) {
+    private final ContainerStateCache containerStateCache;
+    private final PlayerCountBuffer playerCountBuffer;
+    private final BulkActionService bulkActionService;
+    private final MeterRegistry meterRegistry;
+
+    static final String TOTAL_COUNT_HEADER = "X-Total-Count";
+
+    private static final String LISTEN_HINWEIS = "Optional seitenweise (page, size) und sortiert "
+            + "(sort=feld,asc|desc; Felder: name, endpointId, status, discordEnabled, currentPlayers, maxPlayers, "
+            + "lastPlayerUpdate). Gesamtanzahl im Header X-Total-Count; mit If-None-Match und dem ETag der letzten "
+            + "Antwort kommt 304, solange sich kein Container geändert hat.";
+
+    private static final Map<String, Comparator<ContainerInfo>> SORTIERBAR = Map.of(
+            "name", nullsLast(ContainerInfo::getName),
+            "endpointId", nullsLast(ContainerInfo::getEndpointId),
+            "status", nullsLast(ContainerInfo::getStatus),
+            "discordEnabled", nullsLast(ContainerInfo::getDiscordEnabled),
+            "currentPlayers", nullsLast(ContainerInfo::getCurrentPlayers),
+            "maxPlayers", nullsLast(ContainerInfo::getMaxPlayers),
+            "lastPlayerUpdate", nullsLast(ContainerInfo::getLastPlayerUpdate));
+
+    // Die Cache-Version beginnt nach jedem Neustart bei 0 - der Startzeitpunkt macht ETags eindeutig
+    private final String etagPrefix = Long.toString(System.currentTimeMillis(), 36);
+
+    public ContainerApiController(ContainerInfoRepository containerInfoRepository, ContainerStateCache containerStateCache,
+                                  PlayerCountBuffer playerCountBuffer, BulkActionService bulkActionService,
+                                  MeterRegistry meterRegistry) {
         this.containerInfoRepository = containerInfoRepository;
+        this.containerStateCache = containerStateCache;
+        this.playerCountBuffer = playerCountBuffer;
+        this.bulkActionService = bulkActionService;
+        this.meterRegistry = meterRegistry;
+    }
+
+    /**
+     * Zählt eingehende Spielerzahl-Meldungen (Rate über Prometheus rate())
+     */
+    private void zaehleSpielerMeldung(String source, String result) {
+        Counter.builder("player.updates.received")
+                .description("Eingegangene Spielerzahl-Meldungen")
+                .tag("source", source)
+                .tag("result", result)
+                .register(meterRegistry)
+                .increment();
     }
 
     @GetMapping
-    @Operation(summary = "Alle Container abrufen", description = "Gibt eine Liste aller Container zurück")
-    public ResponseEntity<List<ContainerInfo>> getAllContainers() {
-        List<ContainerInfo> containers = containerInfoRepository.findAll();
-        return ResponseEntity.ok(containers);
+    @Operation(summary = "Alle Container abrufen", description = "Gibt eine Liste aller Container zurück. " + LISTEN_HINWEIS)
+    public ResponseEntity<List<ContainerInfo>> getAllContainers(@ParameterObject Pageable pageable, WebRequest webRequest) {
+        return liste(pageable, webRequest, containerStateCache::findAll);
     }
 
     @GetMapping("/discord-enabled")
-    @Operation(summary = "Discord-fähige Container abrufen", description = "Gibt alle Container zurück, die für Discord freigegeben sind")
-    public ResponseEntity<List<ContainerInfo>> getDiscordEnabledContainers() {
-        List<ContainerInfo> containers = containerInfoRepository.findByDiscordEnabledTrue();
-        return ResponseEntity.ok(containers);
+    @Operation(summary = "Discord-fähige Container abrufen",
+            description = "Gibt alle Container zurück, die für Discord freigegeben sind. " + LISTEN_HINWEIS)
+    public ResponseEntity<List<ContainerInfo>> getDiscordEnabledContainers(@ParameterObject Pageable pageable,
+                                                                           WebRequest webRequest) {
+        return liste(pageable, webRequest, containerStateCache::findByDiscordEnabledTrue);
     }
 
     @GetMapping("/{containerName}")
     @Operation(summary = "Container nach Namen abrufen", description = "Gibt einen spezifischen Container anhand des Namens zurück")
     public ResponseEntity<ContainerInfo> getContainerByName(
-            @Parameter(description = "Container-Name") @PathVariable String containerName) {
-        Optional<ContainerInfo> container = containerInfoRepository.findById(containerName);
+            @Parameter(description = "Container-Name") @PathVariable String containerName,
+            @Parameter(description = "Endpoint-ID des Docker-Hosts (nur nötig, wenn der Name auf mehreren Hosts vorkommt)")
+            @RequestParam(required = false) Integer endpointId) {
+        Optional<ContainerInfo> container = containerStateCache.findByName(containerName, endpointId);
         return container.map(ResponseEntity::ok)
                 .orElse(ResponseEntity.notFound().build());
     }
@@ -51,9 +111,13 @@ public class ContainerApiController {
     @Operation(summary = "Discord-Berechtigung aktivieren", description = "Aktiviert die Discord-Steuerung für einen Container")
     @Transactional
     public ResponseEntity<String> enableDiscordControl(
-            @Parameter(description = "Container-Name") @PathVariable String containerName) {
-        int updated = containerInfoRepository.updateDiscordEnabledByName(containerName, true);
-        if (updated > 0) {
+            @Parameter(description = "Container-Name") @PathVariable String containerName,
+            @Parameter(description = "Endpoint-ID des Docker-Hosts (nur nötig, wenn der Name auf mehreren Hosts vorkommt)")
+            @RequestParam(required = false) Integer endpointId) {
+        Optional<ContainerKey> key = findeKey(containerName, endpointId);
+        if (key.isPresent() && containerInfoRepository.updateDiscordEnabledByEndpointIdAndName(
+                key.get().getEndpointId(), containerName, true) > 0) {
+            containerStateCache.aendere(key.get(), c -> c.setDiscordEnabled(true));
             return ResponseEntity.ok("Discord-Steuerung für Container '" + containerName + "' aktiviert");
         } else {
             return ResponseEntity.notFound().build();
@@ -64,9 +128,13 @@ public class ContainerApiController {
     @Operation(summary = "Discord-Berechtigung deaktivieren", description = "Deaktiviert die Discord-Steuerung für einen Container")
     @Transactional
     public ResponseEntity<String> disableDiscordControl(
-            @Parameter(description = "Container-Name") @PathVariable String containerName) {
-        int updated = containerInfoRepository.updateDiscordEnabledByName(containerName, false);
-        if (updated > 0) {
+            @Parameter(description = "Container-Name") @PathVariable String containerName,
+            @Parameter(description = "Endpoint-ID des Docker-Hosts (nur nötig, wenn der Name auf mehreren Hosts vorkommt)")
+            @RequestParam(required = false) Integer endpointId) {
+        Optional<ContainerKey> key = findeKey(containerName, endpointId);
+        if (key.isPresent() && containerInfoRepository.updateDiscordEnabledByEndpointIdAndName(
+                key.get().getEndpointId(), containerName, false) > 0) {
+            containerStateCache.aendere(key.get(), c -> c.setDiscordEnabled(false));
             return ResponseEntity.ok("Discord-Steuerung für Container '" + containerName + "' deaktiviert");
         } else {
             return ResponseEntity.notFound().build();
@@ -77,15 +145,20 @@ public class ContainerApiController {
     @Operation(summary = "Discord-Berechtigung umschalten", description = "Schaltet die Discord-Steuerung für einen Container um")
     @Transactional
     public ResponseEntity<ContainerDiscordStatus> toggleDiscordControl(
-            @Parameter(description = "Container-Name") @PathVariable String containerName) {
-        Optional<ContainerInfo> containerOpt = containerInfoRepository.findById(containerName);
+            @Parameter(description = "Container-Name") @PathVariable String containerName,
+            @Parameter(description = "Endpoint-ID des Docker-Hosts (nur nötig, wenn der Name auf mehreren Hosts vorkommt)")
+            @RequestParam(required = false) Integer endpointId) {
+        Optional<ContainerInfo> containerOpt = findeKey(containerName, endpointId)
+                .flatMap(containerInfoRepository::findById);
         if (containerOpt.isPresent()) {
             ContainerInfo container = containerOpt.get();
             boolean newStatus = !container.getDiscordEnabled();
             container.setDiscordEnabled(newStatus);
             containerInfoRepository.save(container);
+            containerStateCache.aktualisiere(container);
 
-            return ResponseEntity.ok(new ContainerDiscordStatus(container.getContainerId(), containerName, newStatus));
+            return ResponseEntity.ok(new ContainerDiscordStatus(
+                    container.getContainerId(), containerName, container.getEndpointId(), newStatus));
         } else {
             return ResponseEntity.notFound().build();
         }
@@ -94,74 +167,138 @@ public class ContainerApiController {
     // ===== NEUE SPIELERZAHL-APIs =====
 
     @PutMapping("/{containerName}/players")
-    @Operation(summary = "Spielerzahl aktualisieren", description = "Aktualisiert die aktuelle Spielerzahl für einen Container")
-    @Transactional
+    @Operation(summary = "Spielerzahl aktualisieren", description = "Aktualisiert die aktuelle Spielerzahl für einen Container. "
+            + "Der Wert ist sofort abrufbar und wird gepuffert in die Datenbank geschrieben.")
     public ResponseEntity<PlayerCountResponse> updatePlayerCount(
             @Parameter(description = "Container-Name") @PathVariable String containerName,
+            @Parameter(description = "Endpoint-ID des Docker-Hosts (nur nötig, wenn der Name auf mehreren Hosts vorkommt)")
+            @RequestParam(required = false) Integer endpointId,
             @RequestBody PlayerCountRequest request) {
 
-        int updated = containerInfoRepository.updatePlayerCountByName(
-                containerName,
-                request.currentPlayers,
-                LocalDateTime.now()
-        );
-
-        if (updated > 0) {
-            Optional<ContainerInfo> container = containerInfoRepository.findById(containerName);
-            if (container.isPresent()) {
-                ContainerInfo containerInfo = container.get();
-                return ResponseEntity.ok(new PlayerCountResponse(
-                        containerInfo.getName(),
-                        containerInfo.getCurrentPlayers(),
-                        containerInfo.getMaxPlayers(),
-                        containerInfo.getLastPlayerUpdate()
-                ));
-            }
-        }
-
-        return ResponseEntity.notFound().build();
+        return meldeSpielerzahl(containerName, endpointId, request.currentPlayers, null);
     }
 
     @PutMapping("/{containerName}/players-with-max")
     @Operation(summary = "Spielerzahl mit Maximum aktualisieren", description = "Aktualisiert die aktuelle und maximale Spielerzahl für einen Container")
-    @Transactional
     public ResponseEntity<PlayerCountResponse> updatePlayerCountWithMax(
             @Parameter(description = "Container-Name") @PathVariable String containerName,
+            @Parameter(description = "Endpoint-ID des Docker-Hosts (nur nötig, wenn der Name auf mehreren Hosts vorkommt)")
+            @RequestParam(required = false) Integer endpointId,
             @RequestBody PlayerCountWithMaxRequest request) {
 
-        int updated = containerInfoRepository.updatePlayerCountWithMaxByName(
+        return meldeSpielerzahl(containerName, endpointId, request.currentPlayers, request.maxPlayers);
+    }
+
+    private ResponseEntity<PlayerCountResponse> meldeSpielerzahl(String containerName, Integer endpointId,
+                                                                 Integer currentPlayers, Integer maxPlayers) {
+        Optional<ContainerKey> key = findeKey(containerName, endpointId);
+        LocalDateTime now = LocalDateTime.now();
+        if (key.isEmpty() || !playerCountBuffer.melde(key.get(), currentPlayers, maxPlayers, now)) {
+            zaehleSpielerMeldung("single", "not_found");
+            return ResponseEntity.notFound().build();
+        }
+        zaehleSpielerMeldung("single", "updated");
+
+        // Antwort aus dem Cache statt erneutem Lesen aus der Datenbank
+        Integer currentMaxPlayers = containerStateCache.findByKey(key.get())
+                .map(ContainerInfo::getMaxPlayers)
+                .orElse(maxPlayers);
+        return ResponseEntity.ok(new PlayerCountResponse(
                 containerName,
-                request.currentPlayers,
-                request.maxPlayers,
-                LocalDateTime.now()
-        );
-
-        if (updated > 0) {
-            Optional<ContainerInfo> container = containerInfoRepository.findById(containerName);
-            if (container.isPresent()) {
-                ContainerInfo containerInfo = container.get();
-                return ResponseEntity.ok(new PlayerCountResponse(
-                        containerInfo.getName(),
-                        containerInfo.getCurrentPlayers(),
-                        containerInfo.getMaxPlayers(),
-                        containerInfo.getLastPlayerUpdate()
-                ));
+                key.get().getEndpointId(),
+                currentPlayers,
+                currentMaxPlayers,
+                now
+        ));
+    }
+
+    @PutMapping("/players/batch")
+    @Operation(summary = "Spielerzahlen mehrerer Container aktualisieren",
+            description = "Aktualisiert die Spielerzahl (optional mit Maximum) für viele Container in einem Aufruf. "
+                    + "Das Ergebnis wird je Eintrag zurückgemeldet; fehlerhafte Einträge verhindern die übrigen Updates nicht.")
+    public ResponseEntity<PlayerCountBatchResponse> updatePlayerCountsBatch(@RequestBody List<PlayerCountBatchEntry> entries) {
+        LocalDateTime now = LocalDateTime.now();
+        List<PlayerCountBatchResult> results = new ArrayList<>(entries.size());
+        int updated = 0;
+
+        // Alle Einträge landen im Puffer und werden gemeinsam in einer Transaktion geschrieben
+        for (PlayerCountBatchEntry entry : entries) {
+            if (entry.containerName == null || entry.currentPlayers == null) {
+                results.add(new PlayerCountBatchResult(entry.containerName, entry.endpointId, "invalid",
+                        "containerName und currentPlayers sind erforderlich"));
+                continue;
+            }
+            try {
+                Optional<ContainerKey> key = findeKey(entry.containerName, entry.endpointId);
+                if (key.isEmpty() || !playerCountBuffer.melde(key.get(), entry.currentPlayers, entry.maxPlayers, now)) {
+                    results.add(new PlayerCountBatchResult(entry.containerName, entry.endpointId, "not_found", null));
+                    continue;
+                }
+                results.add(new PlayerCountBatchResult(entry.containerName, key.get().getEndpointId(), "updated", null));
+                updated++;
+            } catch (IllegalArgumentException e) {
+                results.add(new PlayerCountBatchResult(entry.containerName, entry.endpointId, "conflict", e.getMessage()));
             }
         }
 
-        return ResponseEntity.notFound().build();
+        results.forEach(r -> zaehleSpielerMeldung("batch", r.status));
+        return ResponseEntity.ok(new PlayerCountBatchResponse(updated, results.size() - updated, now, results));
+    }
+
+    @PostMapping("/bulk/{action}")
+    @Operation(summary = "Sammelaktion für mehrere Container",
+            description = "Startet, stoppt oder startet (restart) viele Container parallel neu - begrenzt auf "
+                    + "docker.bulk.max-concurrency gleichzeitige Docker-Aufrufe je Host. Auswahl über containerNames "
+                    + "oder Filter (endpointId, status, maxPlayers, label als \"key\" oder \"key=value\", discordEnabled); "
+                    + "alle angegebenen Kriterien müssen zutreffen. Ohne Namen ist mindestens ein Filter nötig. "
+                    + "Wie bei /bulkserver nur Discord-freigegebene Container - andere nur mit includeNonDiscord=true. "
+                    + "Die Antwort kommt nach dem letzten Container und enthält Ergebnis und Dauer je Container.")
+    public ResponseEntity<BulkActionResponse> bulkAction(
+            @Parameter(description = "start, stop oder restart") @PathVariable String action,
+            @RequestBody BulkActionRequest request) {
+
+        BulkActionService.Aktion aktion;
+        try {
+            aktion = BulkActionService.Aktion.valueOf(action.toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+        BulkActionService.Auswahl auswahl = new BulkActionService.Auswahl(request.containerNames, request.endpointId,
+                request.status, request.maxPlayers, request.label, request.discordEnabled);
+        if (!auswahl.hatNamen() && !auswahl.hatFilter()) {
+            return ResponseEntity.badRequest().build();
+        }
+        if (!request.includeNonDiscord) {
+            // Standard wie bei /bulkserver: nicht freigegebene Container (Datenbanken, Proxy, der Bot selbst)
+            // bleiben unberührt, solange der Aufrufer sie nicht ausdrücklich einschließt
+            if (Boolean.FALSE.equals(request.discordEnabled)) {
+                return ResponseEntity.badRequest().build();
+            }
+            auswahl = new BulkActionService.Auswahl(request.containerNames, request.endpointId,
+                    request.status, request.maxPlayers, request.label, true);
+        }
+
+        BulkActionService.BulkErgebnis ergebnis = bulkActionService.ausfuehren(aktion, auswahl);
+        List<BulkActionResult> results = ergebnis.ergebnisse().stream()
+                .map(r -> new BulkActionResult(r.name(), r.endpointId(), r.ergebnis(), r.meldung(), r.warteMs(), r.dauerMs()))
+                .toList();
+        return ResponseEntity.ok(new BulkActionResponse(action.toLowerCase(Locale.ROOT), ergebnis.erfolgreich(),
+                ergebnis.uebersprungen(), ergebnis.fehlgeschlagen(), ergebnis.dauerMs(), results));
     }
 
     @GetMapping("/{containerName}/players")
     @Operation(summary = "Spielerzahl abrufen", description = "Gibt die aktuelle Spielerzahl für einen Container zurück")
     public ResponseEntity<PlayerCountResponse> getPlayerCount(
-            @Parameter(description = "Container-Name") @PathVariable String containerName) {
+            @Parameter(description = "Container-Name") @PathVariable String containerName,
+            @Parameter(description = "Endpoint-ID des Docker-Hosts (nur nötig, wenn der Name auf mehreren Hosts vorkommt)")
+            @RequestParam(required = false) Integer endpointId) {
 
-        Optional<ContainerInfo> container = containerInfoRepository.findById(containerName);
+        Optional<ContainerInfo> container = containerStateCache.findByName(containerName, endpointId);
         if (container.isPresent()) {
             ContainerInfo containerInfo = container.get();
             return ResponseEntity.ok(new PlayerCountResponse(
                     containerInfo.getName(),
+                    containerInfo.getEndpointId(),
                     containerInfo.getCurrentPlayers(),
                     containerInfo.getMaxPlayers(),
                     containerInfo.getLastPlayerUpdate()
@@ -172,20 +309,95 @@ public class ContainerApiController {
     }
 
     @GetMapping("/active-players")
-    @Operation(summary = "Container mit aktiven Spielern", description = "Gibt alle Container mit mindestens einem aktiven Spieler zurück")
-    public ResponseEntity<List<ContainerInfo>> getContainersWithActivePlayers() {
-        List<ContainerInfo> containers = containerInfoRepository.findByCurrentPlayersGreaterThan(0);
-        return ResponseEntity.ok(containers);
+    @Operation(summary = "Container mit aktiven Spielern",
+            description = "Gibt alle Container mit mindestens einem aktiven Spieler zurück. " + LISTEN_HINWEIS)
+    public ResponseEntity<List<ContainerInfo>> getContainersWithActivePlayers(@ParameterObject Pageable pageable,
+                                                                              WebRequest webRequest) {
+        return liste(pageable, webRequest, () -> containerStateCache.findByCurrentPlayersGreaterThan(0));
     }
 
     @GetMapping("/players/range")
-    @Operation(summary = "Container nach Spielerzahl-Bereich", description = "Gibt Container zurück, deren Spielerzahl im angegebenen Bereich liegt")
+    @Operation(summary = "Container nach Spielerzahl-Bereich",
+            description = "Gibt Container zurück, deren Spielerzahl im angegebenen Bereich liegt. " + LISTEN_HINWEIS)
     public ResponseEntity<List<ContainerInfo>> getContainersByPlayerRange(
             @Parameter(description = "Minimale Spielerzahl") @RequestParam(defaultValue = "0") Integer minPlayers,
-            @Parameter(description = "Maximale Spielerzahl") @RequestParam(defaultValue = "999") Integer maxPlayers) {
+            @Parameter(description = "Maximale Spielerzahl") @RequestParam(defaultValue = "999") Integer maxPlayers,
+            @ParameterObject Pageable pageable, WebRequest webRequest) {
+
+        return liste(pageable, webRequest, () -> containerStateCache.findByPlayerCountBetween(minPlayers, maxPlayers));
+    }
+
+    /**
+     * Gemeinsame Antwort der Listen-Endpunkte: ETag aus der Cache-Version (304 bei If-None-Match ohne Sortieren
+     * und Serialisieren), Sortierung und Seite im Speicher, Gesamtanzahl im Header X-Total-Count.
+     * Ohne page/size wird wie bisher die vollständige Liste geliefert.
+     */
+    private ResponseEntity<List<ContainerInfo>> liste(Pageable pageable, WebRequest webRequest,
+                                                      Supplier<List<ContainerInfo>> quelle) {
+        // Version vor den Daten lesen: eine Änderung dazwischen führt höchstens zu einem unnötigen Neuladen.
+        // Schwacher ETag, da Tomcat Antworten mit starkem ETag nicht komprimiert (If-None-Match vergleicht ohnehin schwach)
+        String etag = "W/\"" + etagPrefix + "-" + containerStateCache.getVersion() + "\"";
+        if (webRequest.checkNotModified(etag)) {
+            return null;
+        }
+
+        List<ContainerInfo> containers = quelle.get();
+        if (pageable.getSort().isSorted()) {
+            Comparator<ContainerInfo> comparator = comparator(pageable.getSort());
+            if (comparator == null) {
+                return ResponseEntity.badRequest().build();
+            }
+            containers = containers.stream().sorted(comparator).toList();
+        }
+
+        int total = containers.size();
+        boolean paged = webRequest.getParameter("page") != null || webRequest.getParameter("size") != null;
+        if (paged) {
+            long offset = pageable.getOffset();
+            containers = offset >= total
+                    ? List.of()
+                    : containers.subList((int) offset, (int) Math.min(total, offset + pageable.getPageSize()));
+        }
+
+        return ResponseEntity.ok()
+                .eTag(etag)
+                .header(TOTAL_COUNT_HEADER, String.valueOf(total))
+                .body(containers);
+    }
 
-        List<ContainerInfo> containers = containerInfoRepository.findByPlayerCountBetween(minPlayers, maxPlayers);
-        return ResponseEntity.ok(containers);
+    /**
+     * @return Comparator für die angegebene Sortierung oder null bei unbekannten Feldern
+     */
+    private static Comparator<ContainerInfo> comparator(Sort sort) {
+        Comparator<ContainerInfo> result = null;
+        for (Sort.Order order : sort) {
+            Comparator<ContainerInfo> feld = SORTIERBAR.get(order.getProperty());
+            if (feld == null) {
+                return null;
+            }
+            if (order.isDescending()) {
+                feld = feld.reversed();
+            }
+            result = result == null ? feld : result.thenComparing(feld);
+        }
+        return result;
+    }
+
+    private static <T extends Comparable<? super T>> Comparator<ContainerInfo> nullsLast(Function<ContainerInfo, T> feld) {
+        return Comparator.comparing(feld, Comparator.nullsLast(Comparator.naturalOrder()));
+    }
+
+    /**
+     * Ermittelt den Schlüssel eines Containers. Ist der Name auf mehreren Hosts vorhanden und
+     * keine Endpoint-ID angegeben, wirft der Cache eine IllegalArgumentException (-> 409).
+     */
+    private Optional<ContainerKey> findeKey(String containerName, Integer endpointId) {
+        return containerStateCache.findByName(containerName, endpointId).map(ContainerInfo::key);
+    }
+
+    @ExceptionHandler(IllegalArgumentException.class)
+    public ResponseEntity<String> handleAmbiguousName(IllegalArgumentException e) {
+        return ResponseEntity.status(HttpStatus.CONFLICT).body(e.getMessage());
     }
 
     // ===== DTOs =====
@@ -193,11 +405,13 @@ public class ContainerApiController {
     public static class ContainerDiscordStatus {
         public String containerId;
         public String containerName;
+        public Integer endpointId;
         public boolean discordEnabled;
 
-        public ContainerDiscordStatus(String containerId, String containerName, boolean discordEnabled) {
+        public ContainerDiscordStatus(String containerId, String containerName, Integer endpointId, boolean discordEnabled) {
             this.containerId = containerId;
             this.containerName = containerName;
+            this.endpointId = endpointId;
             this.discordEnabled = discordEnabled;
         }
     }
@@ -224,17 +438,114 @@ public class ContainerApiController {
         }
     }
 
+    public static class PlayerCountBatchEntry {
+        public String containerName;
+        public Integer endpointId; // optional, nur bei gleichen Namen auf mehreren Hosts nötig
+        public Integer currentPlayers;
+        public Integer maxPlayers; // optional
+
+        public PlayerCountBatchEntry() {}
+
+        public PlayerCountBatchEntry(String containerName, Integer endpointId, Integer currentPlayers, Integer maxPlayers) {
+            this.containerName = containerName;
+            this.endpointId = endpointId;
+            this.currentPlayers = currentPlayers;
+            this.maxPlayers = maxPlayers;
+        }
+    }
+
+    public static class PlayerCountBatchResult {
+        public String containerName;
+        public Integer endpointId;
+        public String status; // updated, not_found, conflict, invalid
+        public String message;
+
+        public PlayerCountBatchResult(String containerName, Integer endpointId, String status, String message) {
+            this.containerName = containerName;
+            this.endpointId = endpointId;
+            this.status = status;
+            this.message = message;
+        }
+    }
+
+    public static class PlayerCountBatchResponse {
+        public int updated;
+        public int failed;
+        public LocalDateTime lastUpdate;
+        public List<PlayerCountBatchResult> results;
+
+        public PlayerCountBatchResponse(int updated, int failed, LocalDateTime lastUpdate, List<PlayerCountBatchResult> results) {
+            this.updated = updated;
+            this.failed = failed;
+            this.lastUpdate = lastUpdate;
+            this.results = results;
+        }
+    }
+
     public static class PlayerCountResponse {
         public String containerName;
+        public Integer endpointId;
         public Integer currentPlayers;
         public Integer maxPlayers;
         public LocalDateTime lastUpdate;
 
-        public PlayerCountResponse(String containerName, Integer currentPlayers, Integer maxPlayers, LocalDateTime lastUpdate) {
+        public PlayerCountResponse(String containerName, Integer endpointId, Integer currentPlayers,
+                                   Integer maxPlayers, LocalDateTime lastUpdate) {
             this.containerName = containerName;
+            this.endpointId = endpointId;
             this.currentPlayers = currentPlayers;
             this.maxPlayers = maxPlayers;
             this.lastUpdate = lastUpdate;
         }
     }
-}
\ No newline at end of file
+
+    public static class BulkActionRequest {
+        public List<String> containerNames; // optional, sonst Auswahl nur über die Filter
+        public Integer endpointId;
+        public String status; // z.B. running
+        public Integer maxPlayers; // 0 = nur leere Server
+        public String label; // "key" oder "key=value"
+        public Boolean discordEnabled;
+        public boolean includeNonDiscord; // true = auch nicht für Discord freigegebene Container
+
+        public BulkActionRequest() {}
+    }
+
+    public static class BulkActionResult {
+        public String containerName;
+        public Integer endpointId;
+        public String status; // done, skipped, failed, not_found, conflict
+        public String message;
+        public long waitMs;
+        public long durationMs;
+
+        public BulkActionResult(String containerName, Integer endpointId, String status, String message,
+                                long waitMs, long durationMs) {
+            this.containerName = containerName;
+            this.endpointId = endpointId;
+            this.status = status;
+            this.message = message;
+            this.waitMs = waitMs;
+            this.durationMs = durationMs;
+        }
+    }
+
+    public static class BulkActionResponse {
+        public String action;
+        public int done;
+        public int skipped;
+        public int failed;
+        public long durationMs;
+        public List<BulkActionResult> results;
+
+        public BulkActionResponse(String action, int done, int skipped, int failed, long durationMs,
+                                  List<BulkActionResult> results) {
+            this.action = action;
+            this.done = done;
+            this.skipped = skipped;
+            this.failed = failed;
+            this.durationMs = durationMs;
+            this.results = results;
+        }
+    }
+}
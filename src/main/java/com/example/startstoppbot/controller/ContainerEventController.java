@@ -0,0 +1,45 @@
+package com.example.startstoppbot.controller;
+
+import com.example.startstoppbot.service.ContainerEventStream;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+@RestController
+@RequestMapping("/api/events")
+@Tag(name = "Container-Events", description = "Live-Änderungen der Container als Server-Sent Events")
+public class ContainerEventController {
+
+    private final ContainerEventStream containerEventStream;
+
+    public ContainerEventController(ContainerEventStream containerEventStream) {
+        this.containerEventStream = containerEventStream;
+    }
+
+    @GetMapping(value = "/containers", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @Operation(summary = "Container-Änderungen abonnieren",
+            description = "Server-Sent Events: zuerst 'snapshot' mit allen passenden Containern, danach 'added' "
+                    + "(ganzer Container), 'changed' (Schlüssel und nur die geänderten Felder unter 'changes') und "
+                    + "'removed' (nur der Schlüssel). Die Event-ID ist die Version des Container-Stands. "
+                    + "Liest ein Client zu langsam, wird die Verbindung getrennt; nach dem Neuaufbau kommt ein neuer 'snapshot'.")
+    public SseEmitter subscribe(
+            @Parameter(description = "Nur dieser Container (Name, ohne Beachtung der Groß-/Kleinschreibung)")
+            @RequestParam(required = false) String name,
+            @Parameter(description = "Nur Container dieses Docker-Hosts")
+            @RequestParam(required = false) Integer endpointId,
+            @Parameter(description = "Nur Container mit (true) bzw. ohne (false) Discord-Freigabe")
+            @RequestParam(required = false) Boolean discordEnabled) {
+
+        return containerEventStream.abonniere(new ContainerEventStream.Filter(name, endpointId, discordEnabled));
+    }
+
+    @ExceptionHandler(IllegalStateException.class)
+    public ResponseEntity<String> handleTooManySubscribers(IllegalStateException e) {
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body(e.getMessage());
+    }
+}
@@ -0,0 +1,141 @@
+package com.example.startstoppbot.controller;
+
+import com.example.startstoppbot.model.ContainerInfo;
+import com.example.startstoppbot.model.ContainerKey;
+import com.example.startstoppbot.service.ContainerStateCache;
+import com.example.startstoppbot.service.PlayerHistoryService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.*;
+import java.util.List;
+import java.util.Optional;
+
+@RestController
+@RequestMapping("/api/containers/{containerName}/history")
+@Tag(name = "Spielerverlauf", description = "Verlauf und Auswertungen der Spielerzahlen")
+public class PlayerHistoryController {
+
+    private final ContainerStateCache containerStateCache;
+    private final PlayerHistoryService playerHistoryService;
+
+    public PlayerHistoryController(ContainerStateCache containerStateCache, PlayerHistoryService playerHistoryService) {
+        this.containerStateCache = containerStateCache;
+        this.playerHistoryService = playerHistoryService;
+    }
+
+    @GetMapping
+    @Operation(summary = "Spielerverlauf abrufen",
+            description = "Gibt den Verlauf der Spielerzahl im Zeitraum zurück. Auflösung 'raw' (Einzelmeldungen, "
+                    + "Standard: letzte Stunde), 'minute' (Standard: letzte 24 Stunden) oder 'hour' (Standard: letzte 7 Tage)")
+    public ResponseEntity<List<HistoryPoint>> getHistory(
+            @Parameter(description = "Container-Name") @PathVariable String containerName,
+            @Parameter(description = "Endpoint-ID des Docker-Hosts (nur nötig, wenn der Name auf mehreren Hosts vorkommt)")
+            @RequestParam(required = false) Integer endpointId,
+            @Parameter(description = "Auflösung: raw, minute oder hour") @RequestParam(defaultValue = "minute") String resolution,
+            @Parameter(description = "Beginn (ISO, z.B. 2024-05-01T12:00:00)")
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @Parameter(description = "Ende (ISO), Standard: jetzt")
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to) {
+
+        Optional<ContainerKey> key = containerStateCache.findByName(containerName, endpointId).map(ContainerInfo::key);
+        if (key.isEmpty()) {
+            return ResponseEntity.notFound().build();
+        }
+
+        LocalDateTime end = to != null ? to : LocalDateTime.now();
+        List<PlayerHistoryService.Punkt> punkte;
+        switch (resolution.toLowerCase()) {
+            case "raw":
+                punkte = playerHistoryService.rohdaten(key.get(),
+                        toMillis(from != null ? from : end.minusHours(1)), toMillis(end));
+                break;
+            case "minute":
+                punkte = playerHistoryService.minuten(key.get(),
+                        toMillis(from != null ? from : end.minusHours(24)), toMillis(end));
+                break;
+            case "hour":
+                punkte = playerHistoryService.stunden(key.get(),
+                        toMillis(from != null ? from : end.minusDays(7)), toMillis(end));
+                break;
+            default:
+                return ResponseEntity.badRequest().build();
+        }
+
+        return ResponseEntity.ok(punkte.stream().map(HistoryPoint::new).toList());
+    }
+
+    @GetMapping("/daily")
+    @Operation(summary = "Spitzenwerte pro Tag", description = "Gibt je Kalendertag die höchste, niedrigste und durchschnittliche Spielerzahl zurück")
+    public ResponseEntity<List<DailyPlayers>> getDailyPeaks(
+            @Parameter(description = "Container-Name") @PathVariable String containerName,
+            @Parameter(description = "Endpoint-ID des Docker-Hosts (nur nötig, wenn der Name auf mehreren Hosts vorkommt)")
+            @RequestParam(required = false) Integer endpointId,
+            @Parameter(description = "Anzahl Tage inkl. heute") @RequestParam(defaultValue = "30") int days) {
+
+        Optional<ContainerKey> key = containerStateCache.findByName(containerName, endpointId).map(ContainerInfo::key);
+        if (key.isEmpty()) {
+            return ResponseEntity.notFound().build();
+        }
+        if (days < 1) {
+            return ResponseEntity.badRequest().build();
+        }
+
+        List<DailyPlayers> result = playerHistoryService.tageswerte(key.get(), days).entrySet().stream()
+                .map(e -> new DailyPlayers(e.getKey(), e.getValue()))
+                .toList();
+        return ResponseEntity.ok(result);
+    }
+
+    @ExceptionHandler(IllegalArgumentException.class)
+    public ResponseEntity<String> handleAmbiguousName(IllegalArgumentException e) {
+        return ResponseEntity.status(HttpStatus.CONFLICT).body(e.getMessage());
+    }
+
+    private static long toMillis(LocalDateTime time) {
+        return time.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+
+    private static LocalDateTime toLocalDateTime(long millis) {
+        return LocalDateTime.ofInstant(Instant.ofEpochMilli(millis), ZoneId.systemDefault());
+    }
+
+    // ===== DTOs =====
+
+    public static class HistoryPoint {
+        public LocalDateTime time;
+        public int minPlayers;
+        public int maxPlayers;
+        public double avgPlayers;
+        public int samples;
+
+        public HistoryPoint(PlayerHistoryService.Punkt punkt) {
+            this.time = toLocalDateTime(punkt.startMillis());
+            this.minPlayers = punkt.min();
+            this.maxPlayers = punkt.max();
+            this.avgPlayers = Math.round(punkt.avg() * 100) / 100.0;
+            this.samples = punkt.samples();
+        }
+    }
+
+    public static class DailyPlayers {
+        public LocalDate date;
+        public int peakPlayers;
+        public int minPlayers;
+        public double avgPlayers;
+        public int samples;
+
+        public DailyPlayers(LocalDate date, PlayerHistoryService.Punkt punkt) {
+            this.date = date;
+            this.peakPlayers = punkt.max();
+            this.minPlayers = punkt.min();
+            this.avgPlayers = Math.round(punkt.avg() * 100) / 100.0;
+            this.samples = punkt.samples();
+        }
+    }
+}
@@ -2,21 +2,37 @@ package com.example.startstoppbot.model;
 
 import jakarta.persistence.Entity;
 import jakarta.persistence.Id;
+import jakarta.persistence.IdClass;
 import jakarta.persistence.Column;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
 import lombok.Getter;
 import lombok.Setter;
+import org.hibernate.annotations.DynamicUpdate;
 
 import java.time.LocalDateTime;
+import java.util.Objects;
 
 @Entity
+@Table(indexes = {
+        @Index(name = "idx_container_discord_status", columnList = "discord_enabled, status"),
+        @Index(name = "idx_container_status", columnList = "status"),
+        @Index(name = "idx_container_current_players", columnList = "current_players"),
+        @Index(name = "idx_container_last_player_update", columnList = "last_player_update")
+})
+@IdClass(ContainerKey.class)
+@DynamicUpdate // Nur geänderte Spalten schreiben - Status-Abgleich und gepufferte Spielerzahlen überschreiben sich nicht
 @Getter
 @Setter
 public class ContainerInfo {
     @Id
-    private String name; // Name als Primärschlüssel (bleibt bei Stack-Neustart gleich)
+    @Column(name = "endpoint_id", nullable = false)
+    private Integer endpointId; // Endpoint-ID des Docker-Hosts (Teil des Primärschlüssels)
+
+    @Id
+    private String name; // Name + Endpoint als Primärschlüssel (bleibt bei Stack-Neustart gleich)
     private String containerId; // Container-ID (ändert sich bei Stack-Neustart)
     private String status;
-    private Integer endpointId; // Endpoint-ID aus Portainer
 
     @Column(name = "discord_enabled", nullable = false)
     private Boolean discordEnabled = false; // Standard: Discord-Steuerung deaktiviert
@@ -29,4 +45,38 @@ public class ContainerInfo {
 
     @Column(name = "last_player_update")
     private LocalDateTime lastPlayerUpdate; // Zeitstempel der letzten Spielerzahl-Aktualisierung
-}
\ No newline at end of file
+
+    public ContainerKey key() {
+        return new ContainerKey(endpointId, name);
+    }
+
+    /**
+     * Erstellt eine losgelöste Kopie (z.B. für den In-Memory-Cache)
+     */
+    public ContainerInfo copy() {
+        ContainerInfo copy = new ContainerInfo();
+        copy.setName(name);
+        copy.setContainerId(containerId);
+        copy.setStatus(status);
+        copy.setEndpointId(endpointId);
+        copy.setDiscordEnabled(discordEnabled);
+        copy.setCurrentPlayers(currentPlayers);
+        copy.setMaxPlayers(maxPlayers);
+        copy.setLastPlayerUpdate(lastPlayerUpdate);
+        return copy;
+    }
+
+    /**
+     * Vergleicht alle Felder (equals/hashCode bleiben bei der Objektidentität, wie für JPA-Entities üblich)
+     */
+    public boolean gleicherStand(ContainerInfo other) {
+        return Objects.equals(endpointId, other.endpointId)
+                && Objects.equals(name, other.name)
+                && Objects.equals(containerId, other.containerId)
+                && Objects.equals(status, other.status)
+                && Objects.equals(discordEnabled, other.discordEnabled)
+                && Objects.equals(currentPlayers, other.currentPlayers)
+                && Objects.equals(maxPlayers, other.maxPlayers)
+                && Objects.equals(lastPlayerUpdate, other.lastPlayerUpdate);
+    }
+}
@@ -0,0 +1,29 @@
+package com.example.startstoppbot.model;
+
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.io.Serializable;
+
+/**
+ * Zusammengesetzter Primärschlüssel von ContainerInfo: Container-Namen sind nur pro Docker-Host eindeutig
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@EqualsAndHashCode
+public class ContainerKey implements Serializable {
+    private static final long serialVersionUID = 1L;
+
+    private Integer endpointId;
+    private String name;
+
+    @Override
+    public String toString() {
+        return name + "@" + endpointId;
+    }
+}
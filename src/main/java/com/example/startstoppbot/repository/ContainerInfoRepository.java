@@ -1,44 +1,52 @@
 package com.example.startstoppbot.repository;
 
 import com.example.startstoppbot.model.ContainerInfo;
+import com.example.startstoppbot.model.ContainerKey;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 
-public interface ContainerInfoRepository extends JpaRepository<ContainerInfo, String> {
-    // Name ist jetzt der Primärschlüssel, daher direkte findById Verwendung möglich
-    // Optional<ContainerInfo> findById(String name) - bereits durch JpaRepository verfügbar
+public interface ContainerInfoRepository extends JpaRepository<ContainerInfo, ContainerKey> {
+    // Primärschlüssel ist (Endpoint-ID, Name) - gleiche Namen auf verschiedenen Docker-Hosts sind erlaubt
+    // Optional<ContainerInfo> findById(ContainerKey key) - bereits durch JpaRepository verfügbar
 
     // Alle Container die für Discord freigegeben sind
     List<ContainerInfo> findByDiscordEnabledTrue();
 
 
-    // Löschen eines Containers nach Name (ID)
+    // Löschen eines Containers nach Endpoint und Name
     @Modifying
-    @Query("DELETE FROM ContainerInfo c WHERE c.name = :name")
-    int deleteByName(@Param("name") String name);
+    @Query("DELETE FROM ContainerInfo c WHERE c.endpointId = :endpointId AND c.name = :name")
+    int deleteByEndpointIdAndName(@Param("endpointId") Integer endpointId, @Param("name") String name);
 
-    // Discord-Status für einen Container ändern (nach Name - ist jetzt die ID)
+    // Discord-Status für einen Container ändern
     @Modifying
-    @Query("UPDATE ContainerInfo c SET c.discordEnabled = :enabled WHERE c.name = :name")
-    int updateDiscordEnabledByName(@Param("name") String name, @Param("enabled") Boolean enabled);
+    @Query("UPDATE ContainerInfo c SET c.discordEnabled = :enabled WHERE c.endpointId = :endpointId AND c.name = :name")
+    int updateDiscordEnabledByEndpointIdAndName(@Param("endpointId") Integer endpointId, @Param("name") String name, @Param("enabled") Boolean enabled);
 
     // Container nach Container-ID finden (für Fallback-Suche)
     Optional<ContainerInfo> findByContainerId(String containerId);
 
     // Spielerzahl-Update für einen Container
     @Modifying
-    @Query("UPDATE ContainerInfo c SET c.currentPlayers = :currentPlayers, c.lastPlayerUpdate = :updateTime WHERE c.name = :name")
-    int updatePlayerCountByName(@Param("name") String name, @Param("currentPlayers") Integer currentPlayers, @Param("updateTime") LocalDateTime updateTime);
+    @Query("UPDATE ContainerInfo c SET c.currentPlayers = :currentPlayers, c.lastPlayerUpdate = :updateTime WHERE c.endpointId = :endpointId AND c.name = :name")
+    int updatePlayerCountByEndpointIdAndName(@Param("endpointId") Integer endpointId, @Param("name") String name, @Param("currentPlayers") Integer currentPlayers, @Param("updateTime") LocalDateTime updateTime);
 
     // Spielerzahl und maximale Spielerzahl für einen Container setzen
     @Modifying
-    @Query("UPDATE ContainerInfo c SET c.currentPlayers = :currentPlayers, c.maxPlayers = :maxPlayers, c.lastPlayerUpdate = :updateTime WHERE c.name = :name")
-    int updatePlayerCountWithMaxByName(@Param("name") String name, @Param("currentPlayers") Integer currentPlayers, @Param("maxPlayers") Integer maxPlayers, @Param("updateTime") LocalDateTime updateTime);
+    @Query("UPDATE ContainerInfo c SET c.currentPlayers = :currentPlayers, c.maxPlayers = :maxPlayers, c.lastPlayerUpdate = :updateTime WHERE c.endpointId = :endpointId AND c.name = :name")
+    int updatePlayerCountWithMaxByEndpointIdAndName(@Param("endpointId") Integer endpointId, @Param("name") String name, @Param("currentPlayers") Integer currentPlayers, @Param("maxPlayers") Integer maxPlayers, @Param("updateTime") LocalDateTime updateTime);
+
+    // Spielerdaten aller Container mit veraltetem Zeitstempel in einem Statement zurücksetzen (Index auf last_player_update)
+    @Modifying
+    @Transactional
+    @Query("UPDATE ContainerInfo c SET c.currentPlayers = 0, c.lastPlayerUpdate = NULL WHERE c.lastPlayerUpdate < :cutoff")
+    int resetPlayerCountsUpdatedBefore(@Param("cutoff") LocalDateTime cutoff);
 
     // Container mit aktiven Spielern finden
     List<ContainerInfo> findByCurrentPlayersGreaterThan(Integer playerCount);
@@ -46,4 +54,4 @@ public interface ContainerInfoRepository extends JpaRepository<ContainerInfo, St
     // Container mit Spielerzahl zwischen Min und Max
     @Query("SELECT c FROM ContainerInfo c WHERE c.currentPlayers BETWEEN :minPlayers AND :maxPlayers")
     List<ContainerInfo> findByPlayerCountBetween(@Param("minPlayers") Integer minPlayers, @Param("maxPlayers") Integer maxPlayers);
-}
\ No newline at end of file
+}
@@ -0,0 +1,212 @@
+package com.example.startstoppbot.service;
+
+import com.example.startstoppbot.model.ContainerInfo;
+import com.example.startstoppbot.model.ContainerKey;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Stoppt inaktive Discord-Container genau zum Ablauf ihrer Inaktivitätszeit.
+ * Statt eines periodischen Durchlaufs über alle Container wird je laufendem Container ein Termin
+ * eingeplant (Prioritätswarteschlange des ScheduledThreadPoolExecutor). Jede Änderung im
+ * ContainerStateCache (Spielerzahl, Status, Discord-Freigabe) plant den Termin neu;
+ * solange kein Termin fällig ist, läuft nichts.
+ */
+@Service
+public class AutoStopService implements ContainerStateCache.Listener {
+
+    @Value("${scheduler.auto-stop.enabled:true}")
+    private volatile boolean autoStopEnabled;
+
+    @Value("${scheduler.auto-stop.inactivity-minutes:30}")
+    private volatile int inactivityMinutes;
+
+    @Value("${scheduler.auto-stop.check-players:true}")
+    private boolean checkPlayersForAutoStop;
+
+    // Wartezeit bis zum nächsten Versuch, wenn das Stoppen fehlgeschlagen ist
+    @Value("${scheduler.auto-stop.retry-delay-ms:60000}")
+    private long retryDelayMs;
+
+    private final ContainerStateCache containerStateCache;
+    private final DockerService dockerService;
+    private final PlayerCountBuffer playerCountBuffer;
+
+    private final ScheduledThreadPoolExecutor executor;
+    private final Map<ContainerKey, Termin> termine = new ConcurrentHashMap<>();
+
+    private record Termin(LocalDateTime zeitpunkt, ScheduledFuture<?> future) {
+    }
+
+    public AutoStopService(ContainerStateCache containerStateCache, DockerService dockerService,
+                           PlayerCountBuffer playerCountBuffer) {
+        this.containerStateCache = containerStateCache;
+        this.dockerService = dockerService;
+        this.playerCountBuffer = playerCountBuffer;
+
+        this.executor = new ScheduledThreadPoolExecutor(1, r -> {
+            Thread thread = new Thread(r, "auto-stop");
+            thread.setDaemon(true);
+            return thread;
+        });
+        // Abgebrochene Termine sofort aus der Warteschlange entfernen
+        this.executor.setRemoveOnCancelPolicy(true);
+    }
+
+    @PostConstruct
+    public void init() {
+        // Meldet alle bekannten Container als neu - plant die initialen Termine
+        containerStateCache.addListener(this);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    @Override
+    public void geaendert(ContainerInfo vorher, ContainerInfo nachher) {
+        if (nachher == null) {
+            storniere(vorher.key());
+        } else {
+            plane(nachher);
+        }
+    }
+
+    /**
+     * Berechnet den Zeitpunkt, ab dem ein Container gestoppt werden darf (gleiche Regeln wie zuvor der 5-Minuten-Check)
+     * @return Zeitpunkt oder null, wenn der Container nicht automatisch gestoppt wird
+     */
+    private LocalDateTime berechneTermin(ContainerInfo container) {
+        if (!autoStopEnabled
+                || !Boolean.TRUE.equals(container.getDiscordEnabled())
+                || !"running".equalsIgnoreCase(container.getStatus())
+                || playerCountBuffer.letzteMeldung(container) == null) {
+            return null;
+        }
+
+        if (checkPlayersForAutoStop && container.getCurrentPlayers() != null && container.getCurrentPlayers() != 0) {
+            // Solange Spieler online sind, wird nicht gestoppt
+            return null;
+        }
+        // Keine Spieler bzw. keine Spielerdaten: Inaktivität ab der letzten Meldung (auch einer unveränderten,
+        // die nur PlayerCountBuffer kennt - faellig() rechnet daher vor dem Stoppen neu)
+        return playerCountBuffer.letzteMeldung(container).plusMinutes(inactivityMinutes);
+    }
+
+    private void plane(ContainerInfo container) {
+        ContainerKey key = container.key();
+        LocalDateTime zeitpunkt = berechneTermin(container);
+        if (zeitpunkt == null) {
+            storniere(key);
+            return;
+        }
+
+        termine.compute(key, (k, bisher) -> {
+            if (bisher != null) {
+                if (Objects.equals(bisher.zeitpunkt(), zeitpunkt) && !bisher.future().isDone()) {
+                    return bisher;
+                }
+                bisher.future().cancel(false);
+            }
+            return new Termin(zeitpunkt, planeAusfuehrung(key, Duration.between(LocalDateTime.now(), zeitpunkt)));
+        });
+    }
+
+    private ScheduledFuture<?> planeAusfuehrung(ContainerKey key, Duration delay) {
+        // Das Stoppen selbst blockiert bis zu einigen Sekunden - auf einem virtuellen Thread ausführen
+        return executor.schedule(() -> Thread.ofVirtual().name("auto-stop-" + key).start(() -> faellig(key)),
+                Math.max(0, delay.toMillis()), TimeUnit.MILLISECONDS);
+    }
+
+    private void storniere(ContainerKey key) {
+        Termin termin = termine.remove(key);
+        if (termin != null) {
+            termin.future().cancel(false);
+        }
+    }
+
+    private void faellig(ContainerKey key) {
+        ContainerInfo container = containerStateCache.findByKey(key).orElse(null);
+        LocalDateTime zeitpunkt = container != null ? berechneTermin(container) : null;
+        if (zeitpunkt == null) {
+            storniere(key);
+            return;
+        }
+        if (zeitpunkt.isAfter(LocalDateTime.now())) {
+            // Zwischenzeitlich verschoben (Änderung kam während der Ausführung)
+            plane(container);
+            return;
+        }
+
+        String reason = (checkPlayersForAutoStop && container.getCurrentPlayers() != null)
+                ? "Keine Spieler seit " + inactivityMinutes + " Minuten"
+                : "Inaktiv seit " + inactivityMinutes + " Minuten";
+        try {
+            System.out.println("Auto-Stopp für Container: " + key + " - Grund: " + reason);
+            dockerService.stoppeContainer(container.getName(), container.getEndpointId());
+            // Nicht auf das Docker-Event warten (abgeschaltet oder Stream wird neu verbunden) - sonst bliebe
+            // der Container bis zum nächsten vollständigen Abgleich "running" und würde erneut eingeplant
+            containerStateCache.aendere(key, c -> c.setStatus("exited"));
+
+            // Spielerzahl auf 0 setzen nach dem Stoppen
+            playerCountBuffer.melde(key, 0, null, LocalDateTime.now());
+
+        } catch (Exception e) {
+            System.err.println("Fehler beim automatischen Stoppen von Container " + key + ": " + e.getMessage());
+            termine.compute(key, (k, bisher) -> {
+                if (bisher != null) {
+                    bisher.future().cancel(false);
+                }
+                return new Termin(zeitpunkt, planeAusfuehrung(key, Duration.ofMillis(retryDelayMs)));
+            });
+        }
+    }
+
+    /**
+     * Plant alle Termine neu, z.B. nach Änderung der Einstellungen
+     */
+    private void planeAlle() {
+        containerStateCache.findAll().forEach(this::plane);
+    }
+
+    public void setAutoStopEnabled(boolean enabled) {
+        this.autoStopEnabled = enabled;
+        planeAlle();
+    }
+
+    public void setInactivityMinutes(int minutes) {
+        this.inactivityMinutes = minutes;
+        planeAlle();
+    }
+
+    public boolean isAutoStopEnabled() {
+        return autoStopEnabled;
+    }
+
+    public int getInactivityMinutes() {
+        return inactivityMinutes;
+    }
+
+    public boolean isCheckPlayersForAutoStop() {
+        return checkPlayersForAutoStop;
+    }
+
+    /**
+     * @return Anzahl aktuell eingeplanter Stopp-Termine
+     */
+    public int getGeplanteTermine() {
+        return termine.size();
+    }
+}
@@ -0,0 +1,223 @@
+package com.example.startstoppbot.service;
+
+import com.example.startstoppbot.model.ContainerInfo;
+import com.example.startstoppbot.model.ContainerKey;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Start, Stopp oder Neustart vieler Container in einem Aufruf (z.B. einen Host vor der Wartung leeren).
+ * Ausgewählt wird über Namen oder Filter (Host, Status, Spielerzahl, Docker-Label). Die Docker-Aufrufe laufen
+ * parallel auf virtuellen Threads, je Docker-Host höchstens docker.bulk.max-concurrency gleichzeitig -
+ * auch über mehrere gleichzeitige Sammelaktionen hinweg.
+ */
+@Service
+public class BulkActionService {
+
+    // Je Host - unter docker.client.max-connections bleiben, sonst warten die Aufrufe auf freie Verbindungen
+    @Value("${docker.bulk.max-concurrency:8}")
+    private int maxConcurrency;
+
+    // Status, in denen ein Container nicht läuft (Stoppen wird übersprungen)
+    private static final Set<String> GESTOPPT = Set.of("exited", "created", "dead", DockerService.STATUS_ENTFERNT);
+
+    private final ContainerStateCache containerStateCache;
+    private final DockerService dockerService;
+    private final MeterRegistry meterRegistry;
+
+    private final Map<Integer, Semaphore> hostPermits = new ConcurrentHashMap<>();
+
+    public enum Aktion {
+        START, STOP, RESTART
+    }
+
+    /**
+     * Auswahl der Container. Alle angegebenen Kriterien müssen zutreffen; null schränkt nicht ein.
+     * Ohne Namen ist mindestens ein Filter nötig, damit nicht versehentlich alle Container betroffen sind.
+     * @param maxPlayers höchstens so viele Spieler (0 = leere Server)
+     * @param label Docker-Label "key" oder "key=value"
+     */
+    public record Auswahl(List<String> namen, Integer endpointId, String status, Integer maxPlayers,
+                          String label, Boolean discordEnabled) {
+
+        public boolean hatFilter() {
+            return endpointId != null || status != null || maxPlayers != null || label != null || discordEnabled != null;
+        }
+
+        public boolean hatNamen() {
+            return namen != null && !namen.isEmpty();
+        }
+    }
+
+    /**
+     * @param ergebnis done, skipped, failed, not_found oder conflict
+     * @param warteMs Wartezeit auf einen freien Platz beim Host
+     * @param dauerMs Dauer des Docker-Aufrufs (Stoppen wartet bis zum Ende des Containers)
+     */
+    public record ContainerErgebnis(String name, Integer endpointId, String ergebnis, String meldung,
+                                    long warteMs, long dauerMs) {
+    }
+
+    public record BulkErgebnis(Aktion aktion, int erfolgreich, int uebersprungen, int fehlgeschlagen, long dauerMs,
+                               List<ContainerErgebnis> ergebnisse) {
+    }
+
+    public BulkActionService(ContainerStateCache containerStateCache, DockerService dockerService,
+                             MeterRegistry meterRegistry) {
+        this.containerStateCache = containerStateCache;
+        this.dockerService = dockerService;
+        this.meterRegistry = meterRegistry;
+    }
+
+    /**
+     * Führt die Aktion für alle ausgewählten Container aus und wartet, bis alle abgeschlossen sind
+     * @throws IllegalArgumentException bei leerer Auswahl (weder Namen noch Filter)
+     */
+    public BulkErgebnis ausfuehren(Aktion aktion, Auswahl auswahl) {
+        if (!auswahl.hatNamen() && !auswahl.hatFilter()) {
+            throw new IllegalArgumentException("Leere Auswahl: Namen oder mindestens einen Filter angeben");
+        }
+        long start = System.nanoTime();
+        List<ContainerErgebnis> ergebnisse = new ArrayList<>();
+        List<ContainerInfo> ziele = waehleAus(auswahl, ergebnisse);
+        System.out.println("Sammelaktion " + aktion + ": " + ziele.size() + " Container");
+
+        List<Future<ContainerErgebnis>> futures = new ArrayList<>(ziele.size());
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (ContainerInfo container : ziele) {
+                futures.add(executor.submit(() -> fuehreAus(aktion, container)));
+            }
+        }
+        // close() wartet auf alle Aufgaben; fuehreAus wirft nicht
+        futures.forEach(future -> ergebnisse.add(future.resultNow()));
+
+        int erfolgreich = 0;
+        int uebersprungen = 0;
+        for (ContainerErgebnis ergebnis : ergebnisse) {
+            if ("done".equals(ergebnis.ergebnis())) {
+                erfolgreich++;
+            } else if ("skipped".equals(ergebnis.ergebnis())) {
+                uebersprungen++;
+            }
+            Counter.builder("docker.bulk.containers")
+                    .description("Container in Sammelaktionen nach Ergebnis")
+                    .tag("action", aktion.name().toLowerCase())
+                    .tag("outcome", ergebnis.ergebnis())
+                    .register(meterRegistry)
+                    .increment();
+        }
+
+        long dauer = System.nanoTime() - start;
+        Timer.builder("docker.bulk.duration")
+                .description("Dauer einer Sammelaktion vom Aufruf bis zum letzten Container")
+                .tag("action", aktion.name().toLowerCase())
+                .register(meterRegistry)
+                .record(dauer, TimeUnit.NANOSECONDS);
+        System.out.println("Sammelaktion " + aktion + " beendet: " + erfolgreich + " erfolgreich, "
+                + uebersprungen + " übersprungen, " + (ergebnisse.size() - erfolgreich - uebersprungen)
+                + " fehlgeschlagen in " + TimeUnit.NANOSECONDS.toMillis(dauer) + " ms");
+
+        return new BulkErgebnis(aktion, erfolgreich, uebersprungen, ergebnisse.size() - erfolgreich - uebersprungen,
+                TimeUnit.NANOSECONDS.toMillis(dauer), ergebnisse);
+    }
+
+    /**
+     * Ermittelt die Ziel-Container aus dem Cache; nicht auflösbare Namen landen direkt in den Ergebnissen
+     */
+    private List<ContainerInfo> waehleAus(Auswahl auswahl, List<ContainerErgebnis> ergebnisse) {
+        // Labels nur einmal (live) abfragen, danach wie die übrigen Filter im Speicher prüfen
+        Set<ContainerKey> mitLabel = auswahl.label() != null
+                ? dockerService.findeContainerMitLabel(auswahl.label(), auswahl.endpointId())
+                : null;
+
+        if (!auswahl.hatNamen()) {
+            return containerStateCache.findAll().stream()
+                    .filter(container -> passt(auswahl, mitLabel, container))
+                    .sorted(Comparator.comparing(ContainerInfo::getName).thenComparing(ContainerInfo::getEndpointId))
+                    .toList();
+        }
+
+        Map<ContainerKey, ContainerInfo> ziele = new LinkedHashMap<>();
+        for (String name : auswahl.namen()) {
+            try {
+                Optional<ContainerInfo> container = containerStateCache.findByName(name.trim(), auswahl.endpointId());
+                if (container.isEmpty() || (auswahl.discordEnabled() != null
+                        && !auswahl.discordEnabled().equals(container.get().getDiscordEnabled()))) {
+                    ergebnisse.add(new ContainerErgebnis(name, auswahl.endpointId(), "not_found", null, 0, 0));
+                } else if (!passt(auswahl, mitLabel, container.get())) {
+                    ergebnisse.add(new ContainerErgebnis(container.get().getName(), container.get().getEndpointId(),
+                            "skipped", "Passt nicht zu den Filtern", 0, 0));
+                } else {
+                    ziele.putIfAbsent(container.get().key(), container.get());
+                }
+            } catch (IllegalArgumentException e) {
+                ergebnisse.add(new ContainerErgebnis(name, null, "conflict", e.getMessage(), 0, 0));
+            }
+        }
+        return new ArrayList<>(ziele.values());
+    }
+
+    private static boolean passt(Auswahl auswahl, Set<ContainerKey> mitLabel, ContainerInfo container) {
+        return (auswahl.endpointId() == null || auswahl.endpointId().equals(container.getEndpointId()))
+                && (auswahl.status() == null || auswahl.status().equalsIgnoreCase(container.getStatus()))
+                && (auswahl.maxPlayers() == null
+                    || (container.getCurrentPlayers() != null ? container.getCurrentPlayers() : 0) <= auswahl.maxPlayers())
+                && (auswahl.discordEnabled() == null || auswahl.discordEnabled().equals(container.getDiscordEnabled()))
+                && (mitLabel == null || mitLabel.contains(container.key()));
+    }
+
+    private ContainerErgebnis fuehreAus(Aktion aktion, ContainerInfo container) {
+        String name = container.getName();
+        Integer endpointId = container.getEndpointId();
+
+        // Bereits im Zielzustand: keinen Docker-Aufruf (und keinen Platz beim Host) verbrauchen.
+        // paused/restarting zählen als laufend - Docker lehnt /start für sie ab
+        boolean laeuft = container.getStatus() != null && !GESTOPPT.contains(container.getStatus().toLowerCase());
+        if (aktion == Aktion.START && laeuft) {
+            String grund = "running".equalsIgnoreCase(container.getStatus())
+                    ? "Läuft bereits"
+                    : "Läuft bereits (" + container.getStatus() + ")";
+            return new ContainerErgebnis(name, endpointId, "skipped", grund, 0, 0);
+        }
+        if (aktion == Aktion.STOP && !laeuft) {
+            return new ContainerErgebnis(name, endpointId, "skipped", "Bereits gestoppt", 0, 0);
+        }
+
+        Semaphore permits = hostPermits.computeIfAbsent(endpointId, id -> new Semaphore(maxConcurrency));
+        long eingereiht = System.nanoTime();
+        try {
+            permits.acquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return new ContainerErgebnis(name, endpointId, "failed", "Abgebrochen", 0, 0);
+        }
+
+        long start = System.nanoTime();
+        long warteMs = TimeUnit.NANOSECONDS.toMillis(start - eingereiht);
+        try {
+            switch (aktion) {
+                case START -> dockerService.starteContainer(name, endpointId);
+                case STOP -> dockerService.stoppeContainer(name, endpointId);
+                case RESTART -> dockerService.restartContainer(name, endpointId);
+            }
+            return new ContainerErgebnis(name, endpointId, "done", null, warteMs,
+                    TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+        } catch (Exception e) {
+            return new ContainerErgebnis(name, endpointId, "failed", e.getMessage(), warteMs,
+                    TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+        } finally {
+            permits.release();
+        }
+    }
+}
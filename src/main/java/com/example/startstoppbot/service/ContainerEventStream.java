@@ -0,0 +1,216 @@
+package com.example.startstoppbot.service;
+
+import com.example.startstoppbot.model.ContainerInfo;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Function;
+
+/**
+ * Push-Stream (Server-Sent Events) der Änderungen im ContainerStateCache. Jeder Abonnent erhält zuerst
+ * einmal den vollständigen Stand ("snapshot"), danach nur noch Änderungen: "added" (ganzer Container),
+ * "changed" (nur die geänderten Felder) und "removed" (nur der Schlüssel).
+ * Jeder Abonnent hat einen begrenzten Puffer und einen eigenen virtuellen Thread zum Senden. Läuft der
+ * Puffer voll (Client liest zu langsam), wird der Abonnent getrennt - der Cache-Listener blockiert nie.
+ */
+@Service
+public class ContainerEventStream {
+
+    @Value("${events.subscriber-buffer:256}")
+    private int subscriberBuffer;
+
+    @Value("${events.max-subscribers:100}")
+    private int maxSubscribers;
+
+    // Kommentarzeile ohne Ereignisse - hält Proxys offen und erkennt getrennte Clients
+    @Value("${events.heartbeat-ms:15000}")
+    private long heartbeatMs;
+
+    // Danach baut der Client (z.B. EventSource) die Verbindung neu auf und erhält einen neuen Stand
+    @Value("${events.timeout-ms:1800000}")
+    private long timeoutMs;
+
+    // Felder, die in "changed"-Ereignissen verglichen werden
+    private static final Map<String, Function<ContainerInfo, Object>> FELDER = felder();
+
+    private final ContainerStateCache containerStateCache;
+    private final Counter droppedCounter;
+    private final Set<Abonnent> abonnenten = ConcurrentHashMap.newKeySet();
+
+    public ContainerEventStream(ContainerStateCache containerStateCache, MeterRegistry meterRegistry) {
+        this.containerStateCache = containerStateCache;
+
+        Gauge.builder("events.subscribers", abonnenten, Set::size)
+                .description("Verbundene Abonnenten des Container-Event-Streams")
+                .register(meterRegistry);
+        this.droppedCounter = Counter.builder("events.subscribers.dropped")
+                .description("Wegen vollem Puffer getrennte Abonnenten")
+                .register(meterRegistry);
+    }
+
+    private static Map<String, Function<ContainerInfo, Object>> felder() {
+        Map<String, Function<ContainerInfo, Object>> felder = new LinkedHashMap<>();
+        felder.put("containerId", ContainerInfo::getContainerId);
+        felder.put("status", ContainerInfo::getStatus);
+        felder.put("discordEnabled", ContainerInfo::getDiscordEnabled);
+        felder.put("currentPlayers", ContainerInfo::getCurrentPlayers);
+        felder.put("maxPlayers", ContainerInfo::getMaxPlayers);
+        felder.put("lastPlayerUpdate", ContainerInfo::getLastPlayerUpdate);
+        return felder;
+    }
+
+    /**
+     * Auswahl der Container eines Abonnenten; null-Werte schränken nicht ein
+     */
+    public record Filter(String name, Integer endpointId, Boolean discordEnabled) {
+        boolean passt(ContainerInfo container) {
+            return container != null
+                    && (name == null || name.equalsIgnoreCase(container.getName()))
+                    && (endpointId == null || endpointId.equals(container.getEndpointId()))
+                    && (discordEnabled == null || discordEnabled.equals(container.getDiscordEnabled()));
+        }
+    }
+
+    private record Ereignis(String name, long id, Object daten) {
+    }
+
+    /**
+     * @throws IllegalStateException wenn bereits events.max-subscribers Abonnenten verbunden sind
+     */
+    public SseEmitter abonniere(Filter filter) {
+        if (abonnenten.size() >= maxSubscribers) {
+            throw new IllegalStateException("Zu viele Abonnenten (" + maxSubscribers + ")");
+        }
+
+        Abonnent abonnent = new Abonnent(filter, new SseEmitter(timeoutMs));
+        abonnenten.add(abonnent);
+        containerStateCache.addListener(abonnent, stand -> abonnent.puffere(new Ereignis("snapshot",
+                containerStateCache.getVersion(), stand.stream().filter(filter::passt).toList())));
+        Thread.ofVirtual().name("events-" + abonnent.hashCode()).start(abonnent::sende);
+        return abonnent.emitter;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        abonnenten.forEach(Abonnent::schliesse);
+    }
+
+    private final class Abonnent implements ContainerStateCache.Listener {
+        private final Filter filter;
+        private final SseEmitter emitter;
+        private final BlockingQueue<Ereignis> puffer = new ArrayBlockingQueue<>(subscriberBuffer);
+        private final AtomicBoolean geschlossen = new AtomicBoolean();
+        private volatile Thread sender;
+
+        private Abonnent(Filter filter, SseEmitter emitter) {
+            this.filter = filter;
+            this.emitter = emitter;
+            emitter.onCompletion(this::schliesse);
+            emitter.onTimeout(this::schliesse);
+            emitter.onError(e -> schliesse());
+        }
+
+        /**
+         * Läuft unter der Schreibsperre des Caches - nur vergleichen und einreihen, nie blockieren
+         */
+        @Override
+        public void geaendert(ContainerInfo vorher, ContainerInfo nachher) {
+            boolean warSichtbar = filter.passt(vorher);
+            boolean istSichtbar = filter.passt(nachher);
+            long version = containerStateCache.getVersion();
+
+            if (istSichtbar && !warSichtbar) {
+                puffere(new Ereignis("added", version, nachher));
+            } else if (warSichtbar && !istSichtbar) {
+                puffere(new Ereignis("removed", version, schluessel(vorher)));
+            } else if (istSichtbar) {
+                Map<String, Object> aenderungen = new LinkedHashMap<>();
+                FELDER.forEach((feld, getter) -> {
+                    Object neu = getter.apply(nachher);
+                    if (!Objects.equals(getter.apply(vorher), neu)) {
+                        aenderungen.put(feld, neu);
+                    }
+                });
+                if (!aenderungen.isEmpty()) {
+                    Map<String, Object> daten = schluessel(nachher);
+                    daten.put("changes", aenderungen);
+                    puffere(new Ereignis("changed", version, daten));
+                }
+            }
+        }
+
+        private Map<String, Object> schluessel(ContainerInfo container) {
+            Map<String, Object> daten = new LinkedHashMap<>();
+            daten.put("endpointId", container.getEndpointId());
+            daten.put("name", container.getName());
+            return daten;
+        }
+
+        private void puffere(Ereignis ereignis) {
+            if (!puffer.offer(ereignis) && !geschlossen.get()) {
+                droppedCounter.increment();
+                System.err.println("Event-Stream: Abonnent zu langsam (" + subscriberBuffer + " Ereignisse im Puffer) - getrennt");
+                schliesse();
+            }
+        }
+
+        private void sende() {
+            sender = Thread.currentThread();
+            try {
+                while (!geschlossen.get()) {
+                    Ereignis ereignis = puffer.poll(heartbeatMs, TimeUnit.MILLISECONDS);
+                    if (ereignis == null) {
+                        emitter.send(SseEmitter.event().comment("keepalive"));
+                    } else {
+                        emitter.send(SseEmitter.event()
+                                .name(ereignis.name())
+                                .id(String.valueOf(ereignis.id()))
+                                .data(ereignis.daten(), MediaType.APPLICATION_JSON));
+                    }
+                }
+            } catch (IOException | IllegalStateException e) {
+                // Client getrennt oder Emitter bereits abgeschlossen
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } finally {
+                schliesse();
+                emitter.complete();
+            }
+        }
+
+        private void schliesse() {
+            if (geschlossen.compareAndSet(false, true)) {
+                containerStateCache.removeListener(this);
+                abonnenten.remove(this);
+                // Sender aus dem Warten auf den Puffer holen; ein laufendes Schreiben endet mit dem Emitter
+                Thread thread = sender;
+                if (thread != null) {
+                    thread.interrupt();
+                }
+            }
+        }
+    }
+
+    /**
+     * @return Anzahl verbundener Abonnenten
+     */
+    public int getAbonnenten() {
+        return abonnenten.size();
+    }
+}
@@ -0,0 +1,193 @@
+package com.example.startstoppbot.service;
+
+import com.example.startstoppbot.model.ContainerInfo;
+import com.example.startstoppbot.model.ContainerKey;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+/**
+ * Verfolgt gestartete bzw. gestoppte Container, bis sie ihren Zielzustand erreicht haben
+ * (laufend bzw. healthy bei vorhandenem Healthcheck, beendet) und meldet das Ergebnis zurück.
+ * Wartende Jobs belegen keinen Thread: jede Prüfung wird mit wachsendem Abstand auf einem
+ * gemeinsamen Scheduler eingeplant und läuft nur für den Inspect-Aufruf auf einem virtuellen Thread.
+ */
+@Service
+public class ContainerJobService {
+
+    public enum Aktion {
+        START, STOP
+    }
+
+    public enum Ergebnis {
+        RUNNING, HEALTHY, UNHEALTHY, EXITED, STOPPED, TIMEOUT
+    }
+
+    public record JobResult(ContainerKey key, Aktion aktion, Ergebnis ergebnis, Duration dauer,
+                            Integer exitCode, String meldung) {
+    }
+
+    @Value("${docker.jobs.initial-delay-ms:500}")
+    private long initialDelayMs;
+
+    @Value("${docker.jobs.max-delay-ms:10000}")
+    private long maxDelayMs;
+
+    @Value("${docker.jobs.timeout-ms:300000}")
+    private long timeoutMs;
+
+    private final DockerService dockerService;
+    private final MeterRegistry meterRegistry;
+
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread thread = new Thread(r, "container-jobs");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final ExecutorService pruefExecutor = Executors.newVirtualThreadPerTaskExecutor();
+    private final AtomicInteger aktiveJobs = new AtomicInteger();
+
+    public ContainerJobService(DockerService dockerService, MeterRegistry meterRegistry) {
+        this.dockerService = dockerService;
+        this.meterRegistry = meterRegistry;
+
+        Gauge.builder("container.jobs.active", aktiveJobs, AtomicInteger::get)
+                .description("Laufende Start-/Stopp-Jobs, die auf den Zielzustand warten")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Beginnt die Überwachung eines Containers nach einer Start- oder Stopp-Aktion.
+     * @param callback wird genau einmal mit dem Ergebnis aufgerufen (auf einem virtuellen Thread)
+     */
+    public void verfolge(ContainerInfo container, Aktion aktion, Consumer<JobResult> callback) {
+        Job job = new Job(container.copy(), aktion, callback, System.nanoTime(), initialDelayMs);
+        aktiveJobs.incrementAndGet();
+        plane(job);
+    }
+
+    private void plane(Job job) {
+        scheduler.schedule(() -> pruefExecutor.execute(() -> pruefe(job)), job.delayMs, TimeUnit.MILLISECONDS);
+    }
+
+    private void pruefe(Job job) {
+        JobResult result = null;
+        try {
+            DockerService.ContainerState state = dockerService.inspectContainer(job.container).getState();
+            result = bewerte(job, state);
+        } catch (Exception e) {
+            // Inspect-Fehler (z.B. Host kurz nicht erreichbar) werden bis zum Timeout wiederholt
+            job.letzterFehler = e.getMessage();
+            System.err.println("Fehler beim Prüfen von Container " + job.container.key() + ": " + e.getMessage());
+        }
+
+        if (result == null && vergangen(job).toMillis() >= timeoutMs) {
+            result = new JobResult(job.container.key(), job.aktion, Ergebnis.TIMEOUT, vergangen(job), null,
+                    job.letzterFehler != null ? job.letzterFehler : "Zielzustand nicht innerhalb von "
+                            + (timeoutMs / 1000) + " Sekunden erreicht");
+        }
+
+        if (result == null) {
+            // Exponentielles Backoff bis maxDelayMs
+            job.delayMs = Math.min(job.delayMs * 2, maxDelayMs);
+            plane(job);
+            return;
+        }
+
+        abschliessen(job, result);
+    }
+
+    private JobResult bewerte(Job job, DockerService.ContainerState state) {
+        if (state == null) {
+            return null;
+        }
+
+        boolean running = Boolean.TRUE.equals(state.getRunning());
+        String status = state.getStatus();
+        String health = state.getHealth() != null ? state.getHealth().getStatus() : null;
+
+        if (job.aktion == Aktion.START) {
+            if (running) {
+                if (health == null) {
+                    return ergebnis(job, Ergebnis.RUNNING, null, "Container läuft");
+                } else if ("healthy".equals(health)) {
+                    return ergebnis(job, Ergebnis.HEALTHY, null, "Healthcheck erfolgreich");
+                } else if ("unhealthy".equals(health)) {
+                    return ergebnis(job, Ergebnis.UNHEALTHY, null, "Healthcheck fehlgeschlagen");
+                }
+                // Healthcheck läuft noch ("starting")
+                return null;
+            }
+            if ("exited".equals(status) || "dead".equals(status)) {
+                return ergebnis(job, Ergebnis.EXITED, state.getExitCode(),
+                        "Container wurde nach dem Start beendet");
+            }
+            return null;
+        }
+
+        if (!running && !"restarting".equals(status)) {
+            return ergebnis(job, Ergebnis.STOPPED, state.getExitCode(), "Container gestoppt");
+        }
+        return null;
+    }
+
+    private JobResult ergebnis(Job job, Ergebnis ergebnis, Integer exitCode, String meldung) {
+        return new JobResult(job.container.key(), job.aktion, ergebnis, vergangen(job), exitCode, meldung);
+    }
+
+    private void abschliessen(Job job, JobResult result) {
+        aktiveJobs.decrementAndGet();
+        Timer.builder("container.jobs.duration")
+                .description("Dauer vom Start-/Stopp-Befehl bis zum Erreichen des Zielzustands")
+                .tag("action", job.aktion.name().toLowerCase())
+                .tag("result", result.ergebnis().name().toLowerCase())
+                .register(meterRegistry)
+                .record(result.dauer());
+
+        System.out.println("Job " + job.aktion + " für " + job.container.key() + " abgeschlossen: "
+                + result.ergebnis() + " nach " + result.dauer().toMillis() + " ms");
+        try {
+            job.callback.accept(result);
+        } catch (Exception e) {
+            System.err.println("Fehler beim Melden des Job-Ergebnisses: " + e.getMessage());
+        }
+    }
+
+    private Duration vergangen(Job job) {
+        return Duration.ofNanos(System.nanoTime() - job.startedAt);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        scheduler.shutdownNow();
+        pruefExecutor.shutdownNow();
+    }
+
+    private static class Job {
+        private final ContainerInfo container;
+        private final Aktion aktion;
+        private final Consumer<JobResult> callback;
+        private final long startedAt;
+        private long delayMs;
+        private String letzterFehler;
+
+        private Job(ContainerInfo container, Aktion aktion, Consumer<JobResult> callback, long startedAt, long delayMs) {
+            this.container = container;
+            this.aktion = aktion;
+            this.callback = callback;
+            this.startedAt = startedAt;
+            this.delayMs = delayMs;
+        }
+    }
+}
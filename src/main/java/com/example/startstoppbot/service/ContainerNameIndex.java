@@ -0,0 +1,210 @@
+package com.example.startstoppbot.service;
+
+import com.example.startstoppbot.model.ContainerInfo;
+import com.example.startstoppbot.model.ContainerKey;
+import jakarta.annotation.PostConstruct;
+import org.springframework.stereotype.Service;
+
+import java.util.*;
+
+/**
+ * Namensindex über alle Discord-freigegebenen Container für Autocomplete und Vorschläge der Slash-Commands.
+ * Gesucht wird ohne Beachtung der Groß-/Kleinschreibung: zuerst Präfix-Treffer (Binärsuche im sortierten Index),
+ * dann Teilstrings, zuletzt Tippfehler (Editierdistanz). Der Index wird nur nach Änderungen an Namen oder
+ * Discord-Freigaben neu aufgebaut (beim nächsten Zugriff); Spielerzahlen und Status lösen keinen Neuaufbau aus.
+ */
+@Service
+public class ContainerNameIndex implements ContainerStateCache.Listener {
+
+    private final ContainerStateCache containerStateCache;
+
+    private volatile Eintraege eintraege = new Eintraege(new String[0], new ContainerKey[0]);
+    private volatile boolean veraltet = true;
+
+    /**
+     * Kleingeschriebene Namen, sortiert, mit zugehörigem Schlüssel an gleicher Position
+     */
+    private record Eintraege(String[] namen, ContainerKey[] keys) {
+    }
+
+    private record Treffer(int index, int rang) {
+    }
+
+    public ContainerNameIndex(ContainerStateCache containerStateCache) {
+        this.containerStateCache = containerStateCache;
+    }
+
+    @PostConstruct
+    public void init() {
+        containerStateCache.addListener(this);
+    }
+
+    @Override
+    public void geaendert(ContainerInfo vorher, ContainerInfo nachher) {
+        if (!Objects.equals(indexSchluessel(vorher), indexSchluessel(nachher))) {
+            veraltet = true;
+        }
+    }
+
+    private static ContainerKey indexSchluessel(ContainerInfo container) {
+        return container != null && Boolean.TRUE.equals(container.getDiscordEnabled()) ? container.key() : null;
+    }
+
+    /**
+     * Löst eine Eingabe zu genau einem Discord-freigegebenen Container auf - nur über den exakten Namen (ohne Beachtung
+     * der Groß-/Kleinschreibung), wie ihn auch das Autocomplete einsetzt. Ähnliche Namen liefert nur suche(), damit
+     * Start/Stopp nie einen anderen als den eingegebenen Container treffen
+     * @throws IllegalArgumentException wenn der exakte Name auf mehreren Hosts vorkommt und keine Endpoint-ID angegeben ist
+     */
+    public Optional<ContainerInfo> aufloesen(String eingabe, Integer endpointId) {
+        return containerStateCache.findDiscordEnabledByNameIgnoreCase(eingabe, endpointId);
+    }
+
+    /**
+     * @return bis zu limit Container, beste Treffer zuerst; bei leerer Eingabe alphabetisch die ersten
+     */
+    public List<ContainerInfo> suche(String eingabe, Integer endpointId, int limit) {
+        Eintraege aktuell = aktuelleEintraege();
+        String suchbegriff = eingabe != null ? eingabe.trim().toLowerCase(Locale.ROOT) : "";
+        String[] namen = aktuell.namen();
+
+        List<Treffer> treffer = new ArrayList<>();
+        boolean[] gefunden = new boolean[namen.length];
+
+        // 1. Präfix: zusammenhängender Bereich ab der Einfügeposition im sortierten Index
+        int start = Arrays.binarySearch(namen, suchbegriff);
+        for (int i = start >= 0 ? start : -start - 1;
+             i < namen.length && namen[i].startsWith(suchbegriff) && treffer.size() < limit; i++) {
+            pruefeUndFuege(aktuell, i, 0, endpointId, treffer, gefunden);
+        }
+
+        // 2. Teilstring an beliebiger Stelle
+        if (treffer.size() < limit && !suchbegriff.isEmpty()) {
+            for (int i = 0; i < namen.length && treffer.size() < limit; i++) {
+                if (!gefunden[i] && namen[i].contains(suchbegriff)) {
+                    pruefeUndFuege(aktuell, i, 1, endpointId, treffer, gefunden);
+                }
+            }
+        }
+
+        // 3. Tippfehler - erst ab vier Zeichen, sonst passt fast alles
+        if (treffer.size() < limit && suchbegriff.length() >= 4) {
+            List<Treffer> unscharf = sucheUnscharf(aktuell, suchbegriff, endpointId, gefunden);
+            unscharf.sort(Comparator.comparingInt(Treffer::rang));
+            treffer.addAll(unscharf.subList(0, Math.min(unscharf.size(), limit - treffer.size())));
+        }
+
+        // Aktuellen Stand (Status, Spieler) aus dem Cache - der Index selbst enthält nur Namen und Schlüssel
+        List<ContainerInfo> ergebnis = new ArrayList<>(treffer.size());
+        for (Treffer t : treffer) {
+            containerStateCache.findByKey(aktuell.keys()[t.index()])
+                    .filter(c -> Boolean.TRUE.equals(c.getDiscordEnabled()))
+                    .ifPresent(ergebnis::add);
+        }
+        return ergebnis;
+    }
+
+    private static void pruefeUndFuege(Eintraege eintraege, int index, int rang, Integer endpointId,
+                                       List<Treffer> treffer, boolean[] gefunden) {
+        if (endpointId == null || endpointId.equals(eintraege.keys()[index].getEndpointId())) {
+            treffer.add(new Treffer(index, rang));
+            gefunden[index] = true;
+        }
+    }
+
+    private Eintraege aktuelleEintraege() {
+        if (veraltet) {
+            synchronized (this) {
+                if (veraltet) {
+                    // Vor dem Lesen zurücksetzen: eine Änderung während des Aufbaus markiert den Index erneut
+                    veraltet = false;
+                    eintraege = baue(containerStateCache.findByDiscordEnabledTrue());
+                }
+            }
+        }
+        return eintraege;
+    }
+
+    private static Eintraege baue(List<ContainerInfo> containers) {
+        List<ContainerInfo> sortiert = new ArrayList<>(containers);
+        sortiert.sort(Comparator.comparing((ContainerInfo c) -> c.getName().toLowerCase(Locale.ROOT))
+                .thenComparing(ContainerInfo::getEndpointId));
+
+        String[] namen = new String[sortiert.size()];
+        ContainerKey[] keys = new ContainerKey[sortiert.size()];
+        for (int i = 0; i < sortiert.size(); i++) {
+            namen[i] = sortiert.get(i).getName().toLowerCase(Locale.ROOT);
+            keys[i] = sortiert.get(i).key();
+        }
+        return new Eintraege(namen, keys);
+    }
+
+    /**
+     * Editierdistanz (mit Vertauschung benachbarter Zeichen) zwischen Suchbegriff und jedem noch nicht gefundenen
+     * Namen. Da während des Tippens gesucht wird, zählt der Abstand zum ähnlichsten Anfang des Namens.
+     * Die Matrix wird spaltenweise je Zeichen des Namens berechnet: im sortierten Index teilen benachbarte Namen
+     * ihren Anfang, dessen Spalten werden vom vorherigen Namen übernommen (wie bei einer Suche im Trie).
+     */
+    private static List<Treffer> sucheUnscharf(Eintraege eintraege, String suchbegriff, Integer endpointId,
+                                               boolean[] gefunden) {
+        int max = suchbegriff.length() >= 6 ? 2 : 1;
+        int m = suchbegriff.length();
+        // Anfänge, die länger als Suchbegriff + max sind, können nicht näher liegen
+        int maxSpalten = m + max;
+
+        int[][] spalten = new int[maxSpalten + 1][m + 1];
+        int[] spaltenMinimum = new int[maxSpalten + 1];
+        int[] besterAnfang = new int[maxSpalten + 1];
+        for (int i = 0; i <= m; i++) {
+            spalten[0][i] = i;
+        }
+        besterAnfang[0] = m;
+        String berechnet = "";
+        int gueltig = 0;
+
+        List<Treffer> treffer = new ArrayList<>();
+        String[] namen = eintraege.namen();
+        for (int index = 0; index < namen.length; index++) {
+            if (gefunden[index]) {
+                continue;
+            }
+            String name = namen[index];
+            int ende = Math.min(name.length(), maxSpalten);
+
+            // Gemeinsamen Anfang mit dem zuletzt berechneten Namen übernehmen
+            int j = 0;
+            int gemeinsam = Math.min(gueltig, ende);
+            while (j < gemeinsam && name.charAt(j) == berechnet.charAt(j)) {
+                j++;
+            }
+
+            while (j < ende && spaltenMinimum[j] <= max) {
+                j++;
+                int[] spalte = spalten[j];
+                int[] links = spalten[j - 1];
+                char zeichen = name.charAt(j - 1);
+                spalte[0] = j;
+                int minimum = j;
+                for (int i = 1; i <= m; i++) {
+                    int kosten = suchbegriff.charAt(i - 1) == zeichen ? 0 : 1;
+                    int wert = Math.min(Math.min(spalte[i - 1] + 1, links[i] + 1), links[i - 1] + kosten);
+                    if (i > 1 && j > 1 && suchbegriff.charAt(i - 1) == name.charAt(j - 2)
+                            && suchbegriff.charAt(i - 2) == zeichen) {
+                        wert = Math.min(wert, spalten[j - 2][i - 2] + 1);
+                    }
+                    spalte[i] = wert;
+                    minimum = Math.min(minimum, wert);
+                }
+                spaltenMinimum[j] = minimum;
+                besterAnfang[j] = Math.min(besterAnfang[j - 1], spalte[m]);
+            }
+            berechnet = name;
+            gueltig = j;
+
+            if (besterAnfang[j] <= max) {
+                pruefeUndFuege(eintraege, index, 1 + besterAnfang[j], endpointId, treffer, gefunden);
+            }
+        }
+        return treffer;
+    }
+}
@@ -0,0 +1,415 @@
+package com.example.startstoppbot.service;
+
+import com.example.startstoppbot.model.ContainerInfo;
+import com.example.startstoppbot.model.ContainerKey;
+import com.example.startstoppbot.repository.ContainerInfoRepository;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import org.springframework.context.annotation.DependsOn;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.*;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+
+/**
+ * In-Memory-Abbild der Tabelle ContainerInfo für alle lesenden Zugriffe (Discord, REST, Scheduler).
+ * Lesezugriffe arbeiten lock-frei auf einem unveränderlichen Snapshot, Schreibzugriffe erzeugen
+ * einen neuen Snapshot. Änderungen innerhalb einer Transaktion werden erst nach dem Commit sichtbar.
+ * Die gespeicherten Objekte sind Kopien und dürfen von Aufrufern nicht verändert werden.
+ */
+@Component
+@DependsOn("containerKeyMigration")
+public class ContainerStateCache {
+
+    private final ContainerInfoRepository containerInfoRepository;
+
+    private final Object writeLock = new Object();
+    private volatile Snapshot snapshot = Snapshot.of(Collections.emptyMap());
+    // Wird bei jeder Änderung erhöht (z.B. für ETags der REST-API)
+    private volatile long version;
+
+    private final List<Listener> listeners = new CopyOnWriteArrayList<>();
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final AtomicInteger groesse = new AtomicInteger();
+
+    public ContainerStateCache(ContainerInfoRepository containerInfoRepository, MeterRegistry meterRegistry) {
+        this.containerInfoRepository = containerInfoRepository;
+
+        FunctionCounter.builder("container.cache.requests", hits, LongAdder::sum)
+                .tag("result", "hit")
+                .description("Lesezugriffe auf den Container-Cache")
+                .register(meterRegistry);
+        FunctionCounter.builder("container.cache.requests", misses, LongAdder::sum)
+                .tag("result", "miss")
+                .description("Lesezugriffe auf den Container-Cache")
+                .register(meterRegistry);
+        Gauge.builder("container.cache.size", groesse, AtomicInteger::get)
+                .description("Anzahl Container im Cache")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Wird nach jeder Änderung eines Containers im Cache aufgerufen (unter der Schreibsperre - nur kurze Arbeiten)
+     */
+    public interface Listener {
+        /**
+         * @param vorher bisheriger Stand oder null bei neuen Containern
+         * @param nachher neuer Stand oder null bei entfernten Containern
+         */
+        void geaendert(ContainerInfo vorher, ContainerInfo nachher);
+    }
+
+    /**
+     * Registriert einen Listener und meldet ihm alle bereits bekannten Container als neu
+     */
+    public void addListener(Listener listener) {
+        synchronized (writeLock) {
+            listeners.add(listener);
+            snapshot.all.forEach(container -> listener.geaendert(null, container));
+        }
+    }
+
+    /**
+     * Registriert einen Listener und übergibt ihm den aktuellen Stand als Ganzes statt einzeln als neue Container.
+     * Beides geschieht unter der Schreibsperre: jede spätere Änderung kommt danach und keine doppelt.
+     */
+    public void addListener(Listener listener, Consumer<List<ContainerInfo>> aktuellerStand) {
+        synchronized (writeLock) {
+            aktuellerStand.accept(snapshot.all);
+            listeners.add(listener);
+        }
+    }
+
+    public void removeListener(Listener listener) {
+        listeners.remove(listener);
+    }
+
+    @PostConstruct
+    public void ladeAusDatenbank() {
+        List<ContainerInfo> containers = containerInfoRepository.findAll();
+        ersetzeAlle(containers);
+        System.out.println("Container-Cache geladen: " + containers.size() + " Container");
+    }
+
+    // ===== Lesezugriffe (ohne Datenbank) =====
+
+    public Optional<ContainerInfo> findByKey(ContainerKey key) {
+        ContainerInfo container = snapshot.byKey.get(key);
+        zaehle(container != null);
+        return Optional.ofNullable(container);
+    }
+
+    /**
+     * Sucht einen Container nach Name. Ohne Endpoint-ID muss der Name über alle Hosts eindeutig sein.
+     * @throws IllegalArgumentException wenn der Name auf mehreren Hosts vorkommt und keine Endpoint-ID angegeben ist
+     */
+    public Optional<ContainerInfo> findByName(String name, Integer endpointId) {
+        if (endpointId != null) {
+            return findByKey(new ContainerKey(endpointId, name));
+        }
+        return eindeutig(name, snapshot.byName.getOrDefault(name, Collections.emptyList()));
+    }
+
+    /**
+     * Wie findByName, aber nur Discord-freigegebene Container und ohne Beachtung der Groß-/Kleinschreibung
+     */
+    public Optional<ContainerInfo> findDiscordEnabledByNameIgnoreCase(String name, Integer endpointId) {
+        if (name == null) {
+            zaehle(false);
+            return Optional.empty();
+        }
+        List<ContainerInfo> candidates = snapshot.discordEnabledByLowerName
+                .getOrDefault(name.toLowerCase(), Collections.emptyList());
+        if (endpointId != null) {
+            candidates = candidates.stream()
+                    .filter(c -> endpointId.equals(c.getEndpointId()))
+                    .toList();
+        }
+        return eindeutig(name, candidates);
+    }
+
+    private Optional<ContainerInfo> eindeutig(String name, List<ContainerInfo> candidates) {
+        if (candidates.size() > 1) {
+            misses.increment();
+            String endpoints = candidates.stream()
+                    .map(c -> String.valueOf(c.getEndpointId()))
+                    .collect(Collectors.joining(", "));
+            throw new IllegalArgumentException("Container-Name '" + name + "' ist auf mehreren Hosts vorhanden (Endpoints "
+                    + endpoints + ") - bitte Endpoint-ID angeben");
+        }
+        zaehle(!candidates.isEmpty());
+        return candidates.stream().findFirst();
+    }
+
+    /**
+     * @return Stand des Caches; ändert sich bei jeder Änderung eines Containers. Vor dem Lesen der Daten
+     * abfragen - dann beschreibt die Version höchstens einen älteren Stand als die gelesenen Daten.
+     */
+    public long getVersion() {
+        return version;
+    }
+
+    public List<ContainerInfo> findAll() {
+        hits.increment();
+        return snapshot.all;
+    }
+
+    public List<ContainerInfo> findByDiscordEnabledTrue() {
+        hits.increment();
+        return snapshot.discordEnabled;
+    }
+
+    public List<ContainerInfo> findByStatus(String status) {
+        hits.increment();
+        return snapshot.byStatus.getOrDefault(status.toLowerCase(), Collections.emptyList());
+    }
+
+    public List<ContainerInfo> findByCurrentPlayersGreaterThan(int playerCount) {
+        return findByPlayerCountBetween(playerCount + 1, Integer.MAX_VALUE);
+    }
+
+    public List<ContainerInfo> findByPlayerCountBetween(int minPlayers, int maxPlayers) {
+        hits.increment();
+        return snapshot.all.stream()
+                .filter(c -> c.getCurrentPlayers() != null
+                        && c.getCurrentPlayers() >= minPlayers
+                        && c.getCurrentPlayers() <= maxPlayers)
+                .toList();
+    }
+
+    // ===== Schreibzugriffe (nach Commit der laufenden Transaktion) =====
+
+    /**
+     * Ersetzt den gesamten Cache-Inhalt, z.B. nach einem vollständigen Abgleich. Listener erfahren nur von
+     * neuen, entfernten und tatsächlich geänderten Containern; ohne Unterschied bleibt der Snapshot bestehen.
+     */
+    public void ersetzeAlle(Collection<ContainerInfo> containers) {
+        Map<ContainerKey, ContainerInfo> copies = new HashMap<>();
+        containers.forEach(c -> copies.put(c.key(), c.copy()));
+        nachCommit(() -> {
+            synchronized (writeLock) {
+                List<ContainerKey> changed = new ArrayList<>();
+                copies.replaceAll((key, copy) -> uebernimm(copy, snapshot.byKey.get(key), changed));
+                snapshot.byKey.keySet().stream()
+                        .filter(key -> !copies.containsKey(key))
+                        .forEach(changed::add);
+                setze(copies, changed);
+            }
+        });
+    }
+
+    /**
+     * Übernimmt den aktuellen Zustand eines Containers (neu oder geändert)
+     */
+    public void aktualisiere(ContainerInfo container) {
+        aktualisiereAlle(List.of(container));
+    }
+
+    /**
+     * Übernimmt mehrere Container auf einmal - der Snapshot wird nur einmal neu aufgebaut
+     */
+    public void aktualisiereAlle(Collection<ContainerInfo> containers) {
+        List<ContainerInfo> copies = containers.stream().map(ContainerInfo::copy).toList();
+        nachCommit(() -> {
+            synchronized (writeLock) {
+                Map<ContainerKey, ContainerInfo> byKey = new HashMap<>(snapshot.byKey);
+                List<ContainerKey> changed = new ArrayList<>();
+                copies.forEach(copy -> byKey.put(copy.key(), uebernimm(copy, byKey.get(copy.key()), changed)));
+                setze(byKey, changed);
+            }
+        });
+    }
+
+    /**
+     * @return der neue Stand, oder der bisherige (unverändert im Snapshot), wenn sich nichts unterscheidet
+     */
+    private static ContainerInfo uebernimm(ContainerInfo neu, ContainerInfo bisher, List<ContainerKey> changed) {
+        behalteNeuereSpielerdaten(neu, bisher);
+        if (bisher != null && neu.gleicherStand(bisher)) {
+            return bisher;
+        }
+        changed.add(neu.key());
+        return neu;
+    }
+
+    /**
+     * Ändert einzelne Felder eines bereits bekannten Containers, ohne ihn neu zu laden
+     */
+    public void aendere(ContainerKey key, Consumer<ContainerInfo> aenderung) {
+        nachCommit(() -> {
+            synchronized (writeLock) {
+                ContainerInfo current = snapshot.byKey.get(key);
+                if (current == null) {
+                    return;
+                }
+                ContainerInfo copy = current.copy();
+                aenderung.accept(copy);
+                if (copy.gleicherStand(current)) {
+                    return;
+                }
+                Map<ContainerKey, ContainerInfo> byKey = new HashMap<>(snapshot.byKey);
+                byKey.put(key, copy);
+                setze(byKey, List.of(key));
+            }
+        });
+    }
+
+    /**
+     * Wendet dieselbe Änderung auf mehrere Container an - der Snapshot wird nur einmal neu aufgebaut
+     */
+    public void aendereAlle(Collection<ContainerKey> keys, Consumer<ContainerInfo> aenderung) {
+        if (keys.isEmpty()) {
+            return;
+        }
+        nachCommit(() -> {
+            synchronized (writeLock) {
+                Map<ContainerKey, ContainerInfo> byKey = new HashMap<>(snapshot.byKey);
+                List<ContainerKey> changed = new ArrayList<>();
+                for (ContainerKey key : keys) {
+                    ContainerInfo current = byKey.get(key);
+                    if (current != null) {
+                        ContainerInfo copy = current.copy();
+                        aenderung.accept(copy);
+                        if (!copy.gleicherStand(current)) {
+                            byKey.put(key, copy);
+                            changed.add(key);
+                        }
+                    }
+                }
+                setze(byKey, changed);
+            }
+        });
+    }
+
+    public void entferne(ContainerKey key) {
+        nachCommit(() -> {
+            synchronized (writeLock) {
+                if (!snapshot.byKey.containsKey(key)) {
+                    return;
+                }
+                Map<ContainerKey, ContainerInfo> byKey = new HashMap<>(snapshot.byKey);
+                byKey.remove(key);
+                setze(byKey, List.of(key));
+            }
+        });
+    }
+
+    /**
+     * Tauscht den Snapshot aus und benachrichtigt die Listener über die geänderten Container.
+     * Muss unter writeLock aufgerufen werden, damit Listener Änderungen in der richtigen Reihenfolge sehen.
+     */
+    private void setze(Map<ContainerKey, ContainerInfo> byKey, Collection<ContainerKey> changedKeys) {
+        if (changedKeys.isEmpty()) {
+            return;
+        }
+        Snapshot previous = snapshot;
+        snapshot = Snapshot.of(byKey);
+        groesse.set(snapshot.byKey.size());
+        version++;
+        for (ContainerKey key : changedKeys) {
+            ContainerInfo vorher = previous.byKey.get(key);
+            ContainerInfo nachher = snapshot.byKey.get(key);
+            for (Listener listener : listeners) {
+                try {
+                    listener.geaendert(vorher, nachher);
+                } catch (Exception e) {
+                    System.err.println("Fehler in Cache-Listener: " + e.getMessage());
+                }
+            }
+        }
+    }
+
+    /**
+     * Spielerzahlen werden gepuffert in die Datenbank geschrieben (PlayerCountBuffer). Ist der Stand
+     * im Cache neuer als der aus der Datenbank gelesene, bleibt er erhalten.
+     */
+    private static void behalteNeuereSpielerdaten(ContainerInfo neu, ContainerInfo bisher) {
+        if (bisher == null || bisher.getLastPlayerUpdate() == null) {
+            return;
+        }
+        if (neu.getLastPlayerUpdate() == null || bisher.getLastPlayerUpdate().isAfter(neu.getLastPlayerUpdate())) {
+            neu.setCurrentPlayers(bisher.getCurrentPlayers());
+            neu.setMaxPlayers(bisher.getMaxPlayers());
+            neu.setLastPlayerUpdate(bisher.getLastPlayerUpdate());
+        }
+    }
+
+    private void zaehle(boolean hit) {
+        if (hit) {
+            hits.increment();
+        } else {
+            misses.increment();
+        }
+    }
+
+    private void nachCommit(Runnable aktion) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    aktion.run();
+                }
+            });
+        } else {
+            aktion.run();
+        }
+    }
+
+    /**
+     * Unveränderlicher Stand des Caches inkl. Sekundärindizes
+     */
+    private static final class Snapshot {
+        private final Map<ContainerKey, ContainerInfo> byKey;
+        private final Map<String, List<ContainerInfo>> byName;
+        private final Map<String, List<ContainerInfo>> discordEnabledByLowerName;
+        private final List<ContainerInfo> all;
+        private final List<ContainerInfo> discordEnabled;
+        private final Map<String, List<ContainerInfo>> byStatus;
+
+        private Snapshot(Map<ContainerKey, ContainerInfo> byKey) {
+            List<ContainerInfo> sorted = new ArrayList<>(byKey.values());
+            sorted.sort(Comparator.comparing(ContainerInfo::getName).thenComparing(ContainerInfo::getEndpointId));
+
+            Map<String, List<ContainerInfo>> names = new HashMap<>();
+            Map<String, List<ContainerInfo>> lowerNames = new HashMap<>();
+            List<ContainerInfo> enabled = new ArrayList<>();
+            Map<String, List<ContainerInfo>> statusIndex = new HashMap<>();
+            for (ContainerInfo container : sorted) {
+                names.computeIfAbsent(container.getName(), n -> new ArrayList<>()).add(container);
+                if (Boolean.TRUE.equals(container.getDiscordEnabled())) {
+                    enabled.add(container);
+                    lowerNames.computeIfAbsent(container.getName().toLowerCase(), n -> new ArrayList<>())
+                            .add(container);
+                }
+                if (container.getStatus() != null) {
+                    statusIndex.computeIfAbsent(container.getStatus().toLowerCase(), s -> new ArrayList<>())
+                            .add(container);
+                }
+            }
+            names.replaceAll((name, list) -> List.copyOf(list));
+            lowerNames.replaceAll((name, list) -> List.copyOf(list));
+            statusIndex.replaceAll((status, list) -> List.copyOf(list));
+
+            this.byKey = Map.copyOf(byKey);
+            this.byName = Map.copyOf(names);
+            this.discordEnabledByLowerName = Map.copyOf(lowerNames);
+            this.all = List.copyOf(sorted);
+            this.discordEnabled = List.copyOf(enabled);
+            this.byStatus = Map.copyOf(statusIndex);
+        }
+
+        private static Snapshot of(Map<ContainerKey, ContainerInfo> byKey) {
+            return new Snapshot(byKey);
+        }
+    }
+}
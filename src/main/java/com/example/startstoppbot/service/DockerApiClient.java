@@ -0,0 +1,242 @@
+package com.example.startstoppbot.service;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.apache.hc.client5.http.config.ConnectionConfig;
+import org.apache.hc.client5.http.config.RequestConfig;
+import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
+import org.apache.hc.client5.http.impl.classic.HttpClients;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManager;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManagerBuilder;
+import org.apache.hc.client5.http.protocol.HttpClientContext;
+import org.apache.hc.core5.http.io.SocketConfig;
+import org.apache.hc.core5.pool.PoolStats;
+import org.apache.hc.core5.util.TimeValue;
+import org.apache.hc.core5.util.Timeout;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.HttpServerErrorException;
+import org.springframework.web.client.RequestCallback;
+import org.springframework.web.client.ResourceAccessException;
+import org.springframework.web.client.ResponseExtractor;
+import org.springframework.web.client.RestTemplate;
+
+import java.io.IOException;
+import java.net.URI;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * HTTP-Client für einen Docker Engine Host mit persistentem Verbindungspool.
+ * Neben TCP-Hosts (http://host:2375) wird auch der lokale Socket (unix:///var/run/docker.sock)
+ * unterstützt, ohne dass der Daemon per TCP freigegeben werden muss.
+ * Jede Aufrufart (Liste, Inspect, Start/Stop, Event-Stream) hat ein eigenes Zeitbudget,
+ * damit ein langsamer Daemon weder Discord-Commands noch Scheduler-Threads blockiert.
+ */
+public class DockerApiClient implements AutoCloseable {
+
+    /**
+     * Aufrufarten mit jeweils eigenem Timeout
+     */
+    public enum CallType {
+        LIST, INSPECT, ACTION, STREAM
+    }
+
+    /**
+     * Pool- und Timeout-Einstellungen (aus application.properties)
+     */
+    public record Settings(int maxConnections,
+                           Duration connectTimeout,
+                           Duration poolTimeout,
+                           Duration listTimeout,
+                           Duration inspectTimeout,
+                           Duration actionTimeout,
+                           Duration idleTimeout,
+                           Duration streamIdleTimeout) {
+    }
+
+    private static final String UNIX_SCHEME = "unix://";
+
+    private final String host;
+    private final String apiVersion;
+    private final Path socketPath;
+    private final PoolingHttpClientConnectionManager connectionManager;
+    private final CloseableHttpClient httpClient;
+    private final Map<CallType, RestTemplate> restTemplates = new EnumMap<>(CallType.class);
+    private final MeterRegistry meterRegistry;
+
+    public DockerApiClient(String host, String apiVersion, Settings settings, MeterRegistry meterRegistry) {
+        this.host = host;
+        this.apiVersion = apiVersion;
+        this.meterRegistry = meterRegistry;
+
+        if (host.startsWith(UNIX_SCHEME)) {
+            // Lokaler Socket: kein TCP-Pool, jede Anfrage öffnet eine eigene (sehr günstige) Socket-Verbindung
+            this.socketPath = Path.of(host.substring(UNIX_SCHEME.length()));
+            this.connectionManager = null;
+            this.httpClient = null;
+        } else {
+            this.socketPath = null;
+            this.connectionManager = createConnectionManager(settings);
+            this.httpClient = HttpClients.custom()
+                    .setConnectionManager(connectionManager)
+                    .evictExpiredConnections()
+                    .evictIdleConnections(TimeValue.of(settings.idleTimeout()))
+                    .disableAutomaticRetries()
+                    .build();
+        }
+
+        restTemplates.put(CallType.LIST, createRestTemplate(settings.poolTimeout(), settings.listTimeout()));
+        restTemplates.put(CallType.INSPECT, createRestTemplate(settings.poolTimeout(), settings.inspectTimeout()));
+        restTemplates.put(CallType.ACTION, createRestTemplate(settings.poolTimeout(), settings.actionTimeout()));
+        // Event-Stream bleibt dauerhaft offen. Über TCP beendet ein Lese-Timeout eine halb offene Verbindung
+        // (Host neu gestartet oder nicht mehr erreichbar), der Aufrufer verbindet dann neu. Der lokale Socket
+        // wird beim Neustart des Daemons geschlossen und braucht keins.
+        restTemplates.put(CallType.STREAM, createRestTemplate(settings.poolTimeout(),
+                socketPath != null ? Duration.ZERO : settings.streamIdleTimeout()));
+
+        if (connectionManager != null) {
+            registerPoolGauges(meterRegistry);
+        }
+    }
+
+    private PoolingHttpClientConnectionManager createConnectionManager(Settings settings) {
+        return PoolingHttpClientConnectionManagerBuilder.create()
+                .setMaxConnTotal(settings.maxConnections())
+                .setMaxConnPerRoute(settings.maxConnections())
+                // Keepalive-Pakete, damit das Betriebssystem tote Verbindungen (v.a. den Event-Stream) erkennt
+                .setDefaultSocketConfig(SocketConfig.custom()
+                        .setSoKeepAlive(true)
+                        .build())
+                .setDefaultConnectionConfig(ConnectionConfig.custom()
+                        .setConnectTimeout(Timeout.of(settings.connectTimeout()))
+                        .setValidateAfterInactivity(TimeValue.ofSeconds(2))
+                        .build())
+                .build();
+    }
+
+    private void registerPoolGauges(MeterRegistry meterRegistry) {
+        Gauge.builder("docker.client.pool.leased", connectionManager, cm -> cm.getTotalStats().getLeased())
+                .description("Belegte Verbindungen im Docker-Verbindungspool")
+                .tag("host", host)
+                .register(meterRegistry);
+        Gauge.builder("docker.client.pool.available", connectionManager, cm -> cm.getTotalStats().getAvailable())
+                .description("Freie (wiederverwendbare) Verbindungen im Docker-Verbindungspool")
+                .tag("host", host)
+                .register(meterRegistry);
+        Gauge.builder("docker.client.pool.pending", connectionManager, cm -> cm.getTotalStats().getPending())
+                .description("Auf eine Verbindung wartende Anfragen")
+                .tag("host", host)
+                .register(meterRegistry);
+    }
+
+    private RestTemplate createRestTemplate(Duration poolTimeout, Duration responseTimeout) {
+        if (socketPath != null) {
+            return new RestTemplate(new UnixSocketClientHttpRequestFactory(socketPath, responseTimeout));
+        }
+
+        RequestConfig requestConfig = RequestConfig.custom()
+                .setConnectionRequestTimeout(Timeout.of(poolTimeout))
+                .setResponseTimeout(Timeout.of(responseTimeout))
+                .build();
+
+        HttpComponentsClientHttpRequestFactory requestFactory = new HttpComponentsClientHttpRequestFactory(httpClient);
+        requestFactory.setHttpContextFactory((method, uri) -> {
+            HttpClientContext context = HttpClientContext.create();
+            context.setRequestConfig(requestConfig);
+            return context;
+        });
+        return new RestTemplate(requestFactory);
+    }
+
+    public String getHost() {
+        return host;
+    }
+
+    public String getBaseUrl() {
+        if (socketPath != null) {
+            // Host-Teil wird beim Unix-Socket ignoriert, RestTemplate benötigt aber eine HTTP-URL
+            return "http://localhost/" + apiVersion;
+        }
+        return host + "/" + apiVersion;
+    }
+
+    /**
+     * Führt einen Aufruf relativ zur API-Basis-URL aus (z.B. "/containers/json?all=true")
+     * @param operation fachliche Operation für die Metriken (z.B. "list", "inspect", "start")
+     */
+    public <T> ResponseEntity<T> exchange(CallType callType, String operation, HttpMethod method, String path,
+                                          Class<T> responseType) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.setAccept(List.of(MediaType.APPLICATION_JSON));
+        HttpEntity<String> entity = new HttpEntity<>(headers);
+
+        return messe(callType, operation, () ->
+                restTemplates.get(callType).exchange(getBaseUrl() + path, method, entity, responseType));
+    }
+
+    /**
+     * Führt einen Aufruf mit eigener Antwortverarbeitung aus, z.B. für Streaming-Endpunkte
+     */
+    public <T> T execute(CallType callType, String operation, URI uri, HttpMethod method,
+                         RequestCallback requestCallback, ResponseExtractor<T> responseExtractor) {
+        return messe(callType, operation, () ->
+                restTemplates.get(callType).execute(uri, method, requestCallback, responseExtractor));
+    }
+
+    /**
+     * Misst einen Aufruf je Operation, Host und Ergebnis (success, client_error, server_error, io_error, error)
+     */
+    private <T> T messe(CallType callType, String operation, Supplier<T> aufruf) {
+        long start = System.nanoTime();
+        String outcome = "error";
+        try {
+            T result = aufruf.get();
+            outcome = "success";
+            return result;
+        } catch (HttpClientErrorException e) {
+            outcome = "client_error";
+            throw e;
+        } catch (HttpServerErrorException e) {
+            outcome = "server_error";
+            throw e;
+        } catch (ResourceAccessException e) {
+            outcome = "io_error";
+            throw e;
+        } finally {
+            Timer.builder("docker.client.requests")
+                    .description("Dauer der Aufrufe an die Docker Engine API")
+                    .tag("host", host)
+                    .tag("call", callType.name().toLowerCase())
+                    .tag("operation", operation)
+                    .tag("outcome", outcome)
+                    .register(meterRegistry)
+                    .record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    /**
+     * @return Statistik des TCP-Verbindungspools oder null bei Unix-Socket-Hosts
+     */
+    public PoolStats getPoolStats() {
+        return connectionManager != null ? connectionManager.getTotalStats() : null;
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (httpClient != null) {
+            httpClient.close();
+        }
+    }
+}
@@ -0,0 +1,191 @@
+package com.example.startstoppbot.service;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PreDestroy;
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedReader;
+import java.io.InputStreamReader;
+import java.net.SocketTimeoutException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Hält zu jedem Docker-Host eine dauerhafte Verbindung zum /events Stream und überträgt
+ * Statusänderungen von Containern sofort in die Datenbank.
+ * Bei Verbindungsabbruch wird automatisch neu verbunden und ab dem letzten
+ * empfangenen Event-Zeitpunkt des jeweiligen Hosts weitergelesen.
+ */
+@Service
+public class DockerEventService {
+
+    @Value("${docker.events.enabled:true}")
+    private boolean eventsEnabled;
+
+    @Value("${docker.events.reconnect-delay-ms:5000}")
+    private long reconnectDelayMs;
+
+    private final DockerService dockerService;
+    private final DockerHostRegistry dockerHostRegistry;
+    private final ObjectMapper objectMapper;
+
+    private volatile boolean running;
+    private final List<Thread> eventThreads = new CopyOnWriteArrayList<>();
+
+    // Zeitpunkt des letzten verarbeiteten Events je Endpoint in Nanosekunden seit Epoch
+    private final Map<Integer, Long> lastEventTimeNano = new ConcurrentHashMap<>();
+
+    public DockerEventService(DockerService dockerService, DockerHostRegistry dockerHostRegistry,
+                              ObjectMapper objectMapper) {
+        this.dockerService = dockerService;
+        this.dockerHostRegistry = dockerHostRegistry;
+        this.objectMapper = objectMapper;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        if (!eventsEnabled) {
+            System.out.println("Docker-Event-Stream deaktiviert - nur periodischer Abgleich aktiv");
+            return;
+        }
+
+        running = true;
+        // Ein virtueller Thread je Host - blockierendes Lesen des Streams bindet keinen Plattform-Thread
+        for (Integer endpointId : dockerHostRegistry.getEndpointIds()) {
+            eventThreads.add(Thread.ofVirtual()
+                    .name("docker-events-" + endpointId)
+                    .start(() -> eventLoop(endpointId)));
+        }
+    }
+
+    @PreDestroy
+    public void stop() {
+        running = false;
+        eventThreads.forEach(Thread::interrupt);
+    }
+
+    private void eventLoop(Integer endpointId) {
+        while (running) {
+            // Wird gesetzt, sobald der Daemon antwortet - nur dann ist ein Lese-Timeout eine Pause im Stream
+            AtomicBoolean verbunden = new AtomicBoolean();
+            try {
+                // Ab Verbindungszeitpunkt lesen, damit nach einem Abbruch nichts verloren geht
+                long since = lastEventTimeNano.computeIfAbsent(endpointId, id -> System.currentTimeMillis() * 1_000_000L);
+
+                System.out.println("Verbinde mit Docker-Event-Stream von Endpoint " + endpointId
+                        + " (since=" + formatSince(since) + ")");
+                dockerService.leseEventStream(endpointId, formatSince(since), response -> {
+                    verbunden.set(true);
+                    try (BufferedReader reader = new BufferedReader(
+                            new InputStreamReader(response.getBody(), StandardCharsets.UTF_8))) {
+                        String line;
+                        while (running && (line = reader.readLine()) != null) {
+                            verarbeiteZeile(endpointId, line);
+                        }
+                    }
+                    return null;
+                });
+
+                System.out.println("Docker-Event-Stream von Endpoint " + endpointId + " wurde vom Daemon geschlossen");
+
+            } catch (Exception e) {
+                if (running && verbunden.get() && istLeseTimeout(e)) {
+                    // Keine Events innerhalb von docker.events.idle-timeout-ms - Verbindung kann halb offen sein.
+                    // Sofort neu verbinden, Events seit dem letzten Zeitpunkt werden nachgelesen
+                    System.out.println("Docker-Event-Stream von Endpoint " + endpointId + " ohne Events - verbinde neu");
+                    continue;
+                }
+                if (running) {
+                    System.err.println("Fehler im Docker-Event-Stream von Endpoint " + endpointId + ": " + e.getMessage());
+                }
+            }
+
+            if (running) {
+                try {
+                    Thread.sleep(reconnectDelayMs);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+        }
+    }
+
+    private static boolean istLeseTimeout(Throwable e) {
+        for (Throwable t = e; t != null; t = t.getCause()) {
+            if (t instanceof SocketTimeoutException) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void verarbeiteZeile(Integer endpointId, String line) {
+        if (line.isBlank()) {
+            return;
+        }
+
+        try {
+            DockerEvent event = objectMapper.readValue(line, DockerEvent.class);
+            if (!"container".equals(event.getType()) || event.getAction() == null || event.getActor() == null) {
+                return;
+            }
+
+            Map<String, String> attributes = event.getActor().getAttributes();
+            String name = attributes != null ? attributes.get("name") : null;
+            String oldName = attributes != null ? attributes.get("oldName") : null;
+
+            dockerService.wendeContainerEventAn(endpointId, event.getActor().getId(), name, event.getAction(), oldName);
+
+            if (event.getTimeNano() != null) {
+                lastEventTimeNano.merge(endpointId, event.getTimeNano(), Math::max);
+            }
+        } catch (Exception e) {
+            System.err.println("Fehler beim Verarbeiten eines Docker-Events: " + e.getMessage());
+        }
+    }
+
+    private String formatSince(long timeNano) {
+        return String.format("%d.%09d", timeNano / 1_000_000_000L, timeNano % 1_000_000_000L);
+    }
+
+    // DTOs für den Docker /events Stream
+    @Getter
+    @Setter
+    @JsonIgnoreProperties(ignoreUnknown = true)
+    private static class DockerEvent {
+        @JsonProperty("Type")
+        private String type;
+
+        @JsonProperty("Action")
+        private String action;
+
+        @JsonProperty("Actor")
+        private EventActor actor;
+
+        @JsonProperty("timeNano")
+        private Long timeNano;
+    }
+
+    @Getter
+    @Setter
+    @JsonIgnoreProperties(ignoreUnknown = true)
+    private static class EventActor {
+        @JsonProperty("ID")
+        private String id;
+
+        @JsonProperty("Attributes")
+        private Map<String, String> attributes;
+    }
+}
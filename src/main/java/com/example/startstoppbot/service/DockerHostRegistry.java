@@ -0,0 +1,47 @@
+package com.example.startstoppbot.service;
+
+import java.io.IOException;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Alle konfigurierten Docker-Hosts, jeweils einer Endpoint-ID zugeordnet.
+ * Aktionen werden über die Endpoint-ID des Containers an den richtigen Host geleitet.
+ */
+public class DockerHostRegistry implements AutoCloseable {
+
+    private final Map<Integer, DockerApiClient> clients;
+
+    public DockerHostRegistry(Map<Integer, DockerApiClient> clients) {
+        this.clients = Collections.unmodifiableMap(new TreeMap<>(clients));
+    }
+
+    public DockerApiClient getClient(Integer endpointId) {
+        DockerApiClient client = clients.get(endpointId);
+        if (client == null) {
+            throw new RuntimeException("Kein Docker-Host für Endpoint " + endpointId + " konfiguriert");
+        }
+        return client;
+    }
+
+    public Map<Integer, DockerApiClient> getClients() {
+        return clients;
+    }
+
+    public Collection<Integer> getEndpointIds() {
+        return clients.keySet();
+    }
+
+    public boolean isMultiHost() {
+        return clients.size() > 1;
+    }
+
+    @Override
+    public void close() throws IOException {
+        for (DockerApiClient client : clients.values()) {
+            client.close();
+        }
+    }
+}
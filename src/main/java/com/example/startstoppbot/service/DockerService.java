@@ -1,178 +1,484 @@
 package com.example.startstoppbot.service;
 
 import com.example.startstoppbot.model.ContainerInfo;
+import com.example.startstoppbot.model.ContainerKey;
 import com.example.startstoppbot.repository.ContainerInfoRepository;
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import com.fasterxml.jackson.annotation.JsonProperty;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
 import lombok.Getter;
 import lombok.Setter;
+import org.apache.hc.core5.pool.PoolStats;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.*;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.web.client.HttpClientErrorException;
-import org.springframework.web.client.RestTemplate;
+import org.springframework.web.client.ResponseExtractor;
+import org.springframework.web.util.UriComponentsBuilder;
 
+import java.net.URI;
 import java.util.*;
+import java.util.concurrent.*;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Service
 public class DockerService {
 
-    @Value("${docker.host:http://192.168.178.108:2375}")
-    private String dockerHost;
+    // Status eines per Event gelöschten Containers, bis der nächste vollständige Abgleich die Zeile entfernt
+    public static final String STATUS_ENTFERNT = "removed";
 
-    @Value("${docker.api.version:v1.49}")
-    private String apiVersion;
+    @Value("${docker.sync.host-timeout-ms:15000}")
+    private long hostTimeoutMs;
 
     private final ContainerInfoRepository containerInfoRepository;
-    private final RestTemplate restTemplate = new RestTemplate();
+    private final ContainerStateCache containerStateCache;
 
-    public DockerService(ContainerInfoRepository containerInfoRepository) {
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    private final DockerHostRegistry dockerHostRegistry;
+    private final TransactionTemplate transactionTemplate;
+    private final MeterRegistry meterRegistry;
+
+    private final Counter insertedCounter;
+    private final Counter updatedCounter;
+    private final Counter deletedCounter;
+
+    public DockerService(ContainerInfoRepository containerInfoRepository, ContainerStateCache containerStateCache,
+                         DockerHostRegistry dockerHostRegistry, PlatformTransactionManager transactionManager,
+                         MeterRegistry meterRegistry) {
         this.containerInfoRepository = containerInfoRepository;
+        this.containerStateCache = containerStateCache;
+        this.dockerHostRegistry = dockerHostRegistry;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.meterRegistry = meterRegistry;
+
+        this.insertedCounter = syncRowCounter("inserted");
+        this.updatedCounter = syncRowCounter("updated");
+        this.deletedCounter = syncRowCounter("deleted");
     }
 
-    private String getBaseUrl() {
-        return dockerHost + "/" + apiVersion;
+    private Counter syncRowCounter(String change) {
+        return Counter.builder("docker.sync.rows")
+                .description("Beim Abgleich geänderte Container-Zeilen")
+                .tag("change", change)
+                .register(meterRegistry);
     }
 
-    @Transactional
+    /**
+     * Fragt alle Docker-Hosts parallel (je ein virtueller Thread) ab und gleicht die Datenbank ab.
+     * Hosts, die nicht innerhalb von docker.sync.host-timeout-ms antworten, werden übersprungen -
+     * deren Container bleiben bis zum nächsten erfolgreichen Abgleich unverändert.
+     */
     public void aktualisiereDB() {
         System.out.println("=== Starte Datenbank-Aktualisierung mit Docker Engine API ===");
+        long start = System.nanoTime();
+        String outcome = "success";
 
-        String containersUrl = getBaseUrl() + "/containers/json?all=true";
+        Map<Integer, List<DockerContainer>> containersByEndpoint = ladeContainerAllerHosts();
 
-        try {
-            System.out.println("Rufe Container ab: " + containersUrl);
-
-            HttpHeaders headers = new HttpHeaders();
-            headers.setAccept(Arrays.asList(MediaType.APPLICATION_JSON));
-            HttpEntity<String> entity = new HttpEntity<>(headers);
+        if (containersByEndpoint.isEmpty()) {
+            System.err.println("Kein Docker-Host erreichbar - Abgleich übersprungen");
+            outcome = "no_hosts";
+        } else {
+            try {
+                gleicheAb(containersByEndpoint);
+            } catch (Exception e) {
+                System.err.println("Allgemeiner Fehler beim Aktualisieren der DB: " + e.getMessage());
+                e.printStackTrace();
+                outcome = "error";
+            }
+        }
 
-            ResponseEntity<DockerContainer[]> response = restTemplate.exchange(
-                    containersUrl, HttpMethod.GET, entity, DockerContainer[].class);
+        Timer.builder("docker.sync.duration")
+                .description("Dauer eines vollständigen Abgleichs aller Docker-Hosts mit der Datenbank")
+                .tag("outcome", outcome)
+                .register(meterRegistry)
+                .record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        System.out.println("=== Datenbank-Aktualisierung beendet ===");
+    }
 
-            System.out.println("Response Status: " + response.getStatusCode());
+    private Map<Integer, List<DockerContainer>> ladeContainerAllerHosts() {
+        ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+        Map<Integer, Future<List<DockerContainer>>> futures = new TreeMap<>();
+        dockerHostRegistry.getClients().forEach((endpointId, client) ->
+                futures.put(endpointId, executor.submit(() -> ladeContainer(client))));
 
-            if (response.getBody() != null) {
-                System.out.println("Anzahl Container erhalten: " + response.getBody().length);
-                processContainers(Arrays.asList(response.getBody()));
-            } else {
-                System.out.println("Response Body ist null!");
+        Map<Integer, List<DockerContainer>> result = new TreeMap<>();
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(hostTimeoutMs);
+        try {
+            for (Map.Entry<Integer, Future<List<DockerContainer>>> entry : futures.entrySet()) {
+                Integer endpointId = entry.getKey();
+                try {
+                    long remaining = Math.max(0, deadline - System.nanoTime());
+                    result.put(endpointId, entry.getValue().get(remaining, TimeUnit.NANOSECONDS));
+                } catch (TimeoutException e) {
+                    entry.getValue().cancel(true);
+                    System.err.println("Docker-Host " + endpointId + " antwortet nicht innerhalb von "
+                            + hostTimeoutMs + " ms - übersprungen");
+                } catch (ExecutionException e) {
+                    Throwable cause = e.getCause();
+                    if (cause instanceof HttpClientErrorException httpError) {
+                        System.err.println("HTTP Fehler beim Abrufen der Container von Endpoint " + endpointId + ":");
+                        System.err.println("Status: " + httpError.getStatusCode());
+                        System.err.println("Response Body: " + httpError.getResponseBodyAsString());
+                    } else {
+                        System.err.println("Fehler beim Abrufen der Container von Endpoint " + endpointId + ": "
+                                + cause.getMessage());
+                    }
+                }
             }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            // Nicht auf hängende Hosts warten
+            executor.shutdownNow();
+        }
+        return result;
+    }
 
-        } catch (HttpClientErrorException e) {
-            System.err.println("HTTP Fehler beim Abrufen der Container:");
-            System.err.println("Status: " + e.getStatusCode());
-            System.err.println("Response Body: " + e.getResponseBodyAsString());
+    private List<DockerContainer> ladeContainer(DockerApiClient client) {
+        String containersPath = "/containers/json?all=true";
+        System.out.println("Rufe Container ab: " + client.getBaseUrl() + containersPath);
 
-        } catch (Exception e) {
-            System.err.println("Allgemeiner Fehler beim Aktualisieren der DB: " + e.getMessage());
-            e.printStackTrace();
+        ResponseEntity<DockerContainer[]> response = client.exchange(
+                DockerApiClient.CallType.LIST, "list", HttpMethod.GET, containersPath, DockerContainer[].class);
+
+        System.out.println("Response Status (" + client.getHost() + "): " + response.getStatusCode());
+
+        if (response.getBody() == null) {
+            System.out.println("Response Body ist null!");
+            return List.of();
         }
+        System.out.println("Anzahl Container erhalten (" + client.getHost() + "): " + response.getBody().length);
+        return Arrays.asList(response.getBody());
+    }
 
-        System.out.println("=== Datenbank-Aktualisierung beendet ===");
+    /**
+     * Gleicht die Container-Listen der abgefragten Hosts in einer Transaktion mit Datenbank und Cache ab
+     * (paketsichtbar für die JMH-Benchmarks)
+     */
+    void gleicheAb(Map<Integer, List<DockerContainer>> containersByEndpoint) {
+        transactionTemplate.executeWithoutResult(status -> processContainers(containersByEndpoint));
     }
 
-    private void processContainers(List<DockerContainer> containers) {
-        System.out.println("Verarbeite " + containers.size() + " Container");
+    private void processContainers(Map<Integer, List<DockerContainer>> containersByEndpoint) {
+        // Aktuellen Tabelleninhalt einmalig laden und im Speicher mit der Docker-Antwort abgleichen
+        Map<ContainerKey, ContainerInfo> existingContainers = containerInfoRepository.findAll().stream()
+                .collect(Collectors.toMap(ContainerInfo::key, Function.identity()));
 
-        for (DockerContainer container : containers) {
-            if (container.getNames() == null || container.getNames().isEmpty()) {
-                System.err.println("Container ohne Namen übersprungen");
-                continue;
-            }
+        Set<ContainerKey> currentContainerKeys = new HashSet<>();
+        List<ContainerInfo> newContainers = new ArrayList<>();
+        int updatedCount = 0;
 
-            try {
-                // Container-Namen bereinigen (entfernt führenden '/')
-                List<String> cleanedNames = container.getNames().stream()
-                        .map(name -> name.startsWith("/") ? name.substring(1) : name)
-                        .collect(Collectors.toList());
+        for (Map.Entry<Integer, List<DockerContainer>> entry : containersByEndpoint.entrySet()) {
+            Integer endpointId = entry.getKey();
+            List<DockerContainer> containers = entry.getValue();
+            System.out.println("Verarbeite " + containers.size() + " Container von Endpoint " + endpointId);
 
-                String containerName = cleanedNames.get(0);
-                System.out.println("  Verarbeite Container: " + containerName + " (Status: " + container.getState() + ")");
+            for (DockerContainer container : containers) {
+                if (container.getNames() == null || container.getNames().isEmpty()) {
+                    System.err.println("Container ohne Namen übersprungen");
+                    continue;
+                }
 
-                // Prüfen ob Container bereits existiert
-                Optional<ContainerInfo> existingContainer = containerInfoRepository.findById(containerName);
+                // Container-Namen bereinigen (entfernt führenden '/')
+                String containerName = bereinigeName(container.getNames().get(0));
+                ContainerKey key = new ContainerKey(endpointId, containerName);
+                if (!currentContainerKeys.add(key)) {
+                    continue;
+                }
 
-                ContainerInfo containerInfo;
-                if (existingContainer.isPresent()) {
-                    // Container existiert bereits - Container-ID und Status aktualisieren
-                    containerInfo = existingContainer.get();
-                    containerInfo.setContainerId(container.getId());
-                    containerInfo.setStatus(container.getState());
-                    containerInfo.setEndpointId(1); // Docker Engine API hat keine Endpoints, setze Standard
-                    System.out.println("    -> Container aktualisiert (Discord: " + containerInfo.getDiscordEnabled() + ")");
-                } else {
+                ContainerInfo containerInfo = existingContainers.get(key);
+                if (containerInfo == null) {
                     // Neuer Container - mit Standard-Discord-Berechtigung (false)
                     containerInfo = new ContainerInfo();
                     containerInfo.setName(containerName);
+                    containerInfo.setEndpointId(endpointId);
                     containerInfo.setContainerId(container.getId());
                     containerInfo.setStatus(container.getState());
-                    containerInfo.setEndpointId(1); // Standard Endpoint für Docker Engine API
                     containerInfo.setDiscordEnabled(false); // Standard: Discord deaktiviert
-                    System.out.println("    -> Neuer Container erstellt");
+                    newContainers.add(containerInfo);
+                    System.out.println("  Neuer Container: " + key + " (Status: " + container.getState() + ")");
+
+                } else if (!Objects.equals(containerInfo.getContainerId(), container.getId())
+                        || !Objects.equals(containerInfo.getStatus(), container.getState())) {
+                    // Verwaltete Entity - Hibernate schreibt nur geänderte Zeilen gesammelt beim Flush
+                    containerInfo.setContainerId(container.getId());
+                    containerInfo.setStatus(container.getState());
+                    updatedCount++;
+                    System.out.println("  Container aktualisiert: " + key + " (Status: " + container.getState() + ")");
                 }
+            }
+        }
 
-                containerInfoRepository.save(containerInfo);
+        // persist statt save: vermeidet das SELECT von merge() bei zugewiesenem Primärschlüssel
+        newContainers.forEach(entityManager::persist);
 
-            } catch (Exception e) {
-                System.err.println("Fehler beim Verarbeiten von Container: " + e.getMessage());
-                e.printStackTrace();
-            }
+        int deletedCount = deleteOldContainers(currentContainerKeys, existingContainers, containersByEndpoint.keySet());
+
+        List<ContainerInfo> currentContainers = new ArrayList<>(newContainers);
+        existingContainers.values().stream()
+                .filter(c -> currentContainerKeys.contains(c.key()) || !containersByEndpoint.containsKey(c.getEndpointId()))
+                .forEach(currentContainers::add);
+        containerStateCache.ersetzeAlle(currentContainers);
+
+        insertedCounter.increment(newContainers.size());
+        updatedCounter.increment(updatedCount);
+        deletedCounter.increment(deletedCount);
+        System.out.println("Abgleich abgeschlossen: " + newContainers.size() + " neu, "
+                + updatedCount + " aktualisiert, " + deletedCount + " entfernt");
+    }
+
+    /**
+     * Entfernt Container, die auf einem erfolgreich abgefragten Host nicht mehr existieren.
+     * Container von nicht erreichbaren Hosts bleiben erhalten.
+     */
+    private int deleteOldContainers(Set<ContainerKey> currentContainerKeys, Map<ContainerKey, ContainerInfo> existingContainers,
+                                    Set<Integer> syncedEndpoints) {
+        List<ContainerInfo> oldContainers = existingContainers.values().stream()
+                .filter(c -> syncedEndpoints.contains(c.getEndpointId()))
+                .filter(c -> !currentContainerKeys.contains(c.key()))
+                .toList();
+
+        if (!oldContainers.isEmpty()) {
+            System.out.println("Lösche alte Container: " + oldContainers.stream().map(ContainerInfo::key).toList());
+            containerInfoRepository.deleteAllInBatch(oldContainers);
         }
+        return oldContainers.size();
+    }
 
-        deleteOldContainers(containers);
+    /**
+     * Wendet ein einzelnes Container-Event aus dem Docker /events Stream auf die Datenbank an.
+     * Unbekannte Aktionen werden ignoriert, damit der Stream nicht abbricht.
+     * @param endpointId Endpoint-ID des Hosts, von dem das Event stammt
+     * @param containerId ID des Containers aus dem Event
+     * @param containerName aktueller Name des Containers (ohne führenden '/')
+     * @param action Docker-Aktion (start, stop, die, destroy, rename, ...)
+     * @param oldName vorheriger Name bei "rename", sonst null
+     */
+    @Transactional
+    public void wendeContainerEventAn(Integer endpointId, String containerId, String containerName, String action, String oldName) {
+        if (containerName == null || containerName.isEmpty()) {
+            return;
+        }
+
+        ContainerKey key = new ContainerKey(endpointId, containerName);
+        switch (action) {
+            case "create":
+                if (containerInfoRepository.findById(key).isEmpty()) {
+                    ContainerInfo containerInfo = new ContainerInfo();
+                    containerInfo.setName(containerName);
+                    containerInfo.setEndpointId(endpointId);
+                    containerInfo.setContainerId(containerId);
+                    containerInfo.setStatus("created");
+                    containerInfo.setDiscordEnabled(false);
+                    entityManager.persist(containerInfo);
+                    containerStateCache.aktualisiere(containerInfo);
+                    System.out.println("Event: Neuer Container " + key);
+                } else {
+                    // Neu erstellt unter bekanntem Namen (docker rm + docker run --name) - Einstellungen bleiben
+                    aktualisiereStatus(key, containerId, "created");
+                }
+                break;
+            case "start":
+            case "restart":
+            case "unpause":
+                aktualisiereStatus(key, containerId, "running");
+                break;
+            case "pause":
+                aktualisiereStatus(key, containerId, "paused");
+                break;
+            case "die":
+            case "stop":
+                aktualisiereStatus(key, containerId, "exited");
+                break;
+            case "destroy":
+                markiereEntfernt(key, containerId);
+                break;
+            case "rename":
+                benenneContainerUm(endpointId, containerId, bereinigeName(oldName), containerName);
+                break;
+            default:
+                // Andere Aktionen (exec_*, attach, kill, ...) ändern den gespeicherten Zustand nicht
+                break;
+        }
     }
 
-    private void deleteOldContainers(List<DockerContainer> containers) {
-        Set<String> currentContainerNames = containers.stream()
-                .flatMap(c -> c.getNames().stream())
-                .map(name -> name.startsWith("/") ? name.substring(1) : name)
-                .collect(Collectors.toSet());
-
-        List<ContainerInfo> allContainers = containerInfoRepository.findAll();
-        for (ContainerInfo container : allContainers) {
-            if (!currentContainerNames.contains(container.getName())) {
-                System.out.println("Lösche alten Container: " + container.getName());
-                containerInfoRepository.delete(container);
-            }
+    private void aktualisiereStatus(ContainerKey key, String containerId, String status) {
+        Optional<ContainerInfo> containerOpt = containerInfoRepository.findById(key);
+        if (containerOpt.isEmpty()) {
+            // Container ist noch nicht bekannt - wird beim nächsten vollständigen Abgleich aufgenommen
+            return;
         }
+
+        ContainerInfo containerInfo = containerOpt.get();
+        containerInfo.setContainerId(containerId);
+        containerInfo.setStatus(status);
+        containerStateCache.aktualisiere(containerInfo);
+        System.out.println("Event: " + key + " -> " + status);
     }
 
-    public void starteContainer(String containerName) {
-        containerAktion(containerName, "start");
+    /**
+     * Ein gelöschter Container behält seine Zeile samt Einstellungen (Discord-Freigabe, maximale Spielerzahl):
+     * bei einem Neuaufbau (docker compose up, docker rm + docker run --name) folgt ein Container gleichen Namens
+     * und übernimmt sie. Bleibt der Name frei, entfernt der nächste vollständige Abgleich die Zeile.
+     * Events eines älteren Containers gleichen Namens (andere Container-ID) werden ignoriert.
+     */
+    private void markiereEntfernt(ContainerKey key, String containerId) {
+        Optional<ContainerInfo> containerOpt = containerInfoRepository.findById(key);
+        if (containerOpt.isEmpty()) {
+            return;
+        }
+
+        ContainerInfo containerInfo = containerOpt.get();
+        if (containerInfo.getContainerId() != null && !containerInfo.getContainerId().equals(containerId)) {
+            return;
+        }
+        containerInfo.setStatus(STATUS_ENTFERNT);
+        containerStateCache.aktualisiere(containerInfo);
+        System.out.println("Event: Container " + key + " entfernt");
     }
 
-    public void stoppeContainer(String containerName) {
-        containerAktion(containerName, "stop");
+    private void benenneContainerUm(Integer endpointId, String containerId, String oldName, String newName) {
+        if (oldName == null || oldName.equals(newName)) {
+            return;
+        }
+
+        ContainerKey oldKey = new ContainerKey(endpointId, oldName);
+        Optional<ContainerInfo> oldContainer = containerInfoRepository.findById(oldKey);
+        if (oldContainer.isEmpty()) {
+            return;
+        }
+
+        ContainerInfo previous = oldContainer.get();
+        ContainerKey newKey = new ContainerKey(endpointId, newName);
+        Optional<ContainerInfo> existing = containerInfoRepository.findById(newKey);
+        ContainerInfo renamed;
+        if (existing.isPresent()) {
+            // Zielname bereits bekannt (z.B. docker compose up: temporärer Name <id>_name -> name) - dessen
+            // Einstellungen bleiben, übernommen werden nur Container-ID und Status des umbenannten Containers
+            renamed = existing.get();
+            renamed.setContainerId(containerId);
+            renamed.setStatus(previous.getStatus());
+            containerInfoRepository.delete(previous);
+        } else {
+            // Name ist Teil des Primärschlüssels - daher neuen Eintrag mit den bisherigen Einstellungen anlegen
+            renamed = previous.copy();
+            renamed.setName(newName);
+            renamed.setContainerId(containerId);
+            containerInfoRepository.delete(previous);
+            entityManager.persist(renamed);
+        }
+        containerStateCache.entferne(oldKey);
+        containerStateCache.aktualisiere(renamed);
+        System.out.println("Event: Container " + oldKey + " umbenannt in " + newName);
     }
 
-    public void restartContainer(String containerName) {
-        containerAktion(containerName, "restart");
+    private String bereinigeName(String name) {
+        if (name == null) {
+            return null;
+        }
+        return name.startsWith("/") ? name.substring(1) : name;
     }
 
-    private void containerAktion(String containerName, String action) {
-        Optional<ContainerInfo> containerOpt = containerInfoRepository.findById(containerName);
-        if (containerOpt.isEmpty()) {
-            throw new RuntimeException("Container nicht gefunden: " + containerName);
+    /**
+     * Öffnet den Docker /events Stream (nur Container-Events) eines Hosts und übergibt die Antwort
+     * an den Extractor. Der Aufruf blockiert, bis der Stream vom Daemon geschlossen wird.
+     * @param since Startzeitpunkt im Docker-Format "sekunden.nanosekunden" oder null
+     */
+    public void leseEventStream(Integer endpointId, String since, ResponseExtractor<Void> extractor) {
+        DockerApiClient client = dockerHostRegistry.getClient(endpointId);
+        UriComponentsBuilder builder = UriComponentsBuilder.fromHttpUrl(client.getBaseUrl() + "/events")
+                .queryParam("filters", "{filters}");
+        if (since != null) {
+            builder.queryParam("since", since);
         }
+        URI eventsUri = builder.encode()
+                .buildAndExpand("{\"type\":[\"container\"]}")
+                .toUri();
+
+        client.execute(DockerApiClient.CallType.STREAM, "events", eventsUri, HttpMethod.GET,
+                request -> request.getHeaders().setAccept(List.of(MediaType.APPLICATION_JSON)),
+                extractor);
+    }
+
+    /**
+     * Sucht Container anhand eines Docker-Labels. Labels werden nicht in Datenbank und Cache gehalten,
+     * daher werden die Hosts (parallel, wie beim Abgleich) live abgefragt.
+     * @param label "key" (beliebiger Wert) oder "key=value"
+     * @param endpointId nur diesen Host abfragen, oder null für alle
+     */
+    public Set<ContainerKey> findeContainerMitLabel(String label, Integer endpointId) {
+        int trenner = label.indexOf('=');
+        String labelKey = trenner >= 0 ? label.substring(0, trenner) : label;
+        String labelValue = trenner >= 0 ? label.substring(trenner + 1) : null;
+
+        Set<ContainerKey> result = new HashSet<>();
+        ladeContainerAllerHosts().forEach((endpoint, containers) -> {
+            if (endpointId != null && !endpointId.equals(endpoint)) {
+                return;
+            }
+            for (DockerContainer container : containers) {
+                Map<String, String> labels = container.getLabels();
+                if (labels != null && labels.containsKey(labelKey)
+                        && (labelValue == null || labelValue.equals(labels.get(labelKey)))
+                        && container.getNames() != null && !container.getNames().isEmpty()) {
+                    result.add(new ContainerKey(endpoint, bereinigeName(container.getNames().get(0))));
+                }
+            }
+        });
+        return result;
+    }
+
+    /**
+     * Startet einen Container. Die Endpoint-ID ist nur nötig, wenn der Name auf mehreren Hosts vorkommt.
+     */
+    public void starteContainer(String containerName, Integer endpointId) {
+        containerAktion(findeContainer(containerName, endpointId), "start");
+    }
 
-        ContainerInfo container = containerOpt.get();
-        String url = String.format("%s/containers/%s/%s",
-                getBaseUrl(), container.getContainerId(), action);
+    public void stoppeContainer(String containerName, Integer endpointId) {
+        containerAktion(findeContainer(containerName, endpointId), "stop");
+    }
 
-        System.out.println("Container-Aktion: " + action + " für " + containerName + " - URL: " + url);
+    public void restartContainer(String containerName, Integer endpointId) {
+        containerAktion(findeContainer(containerName, endpointId), "restart");
+    }
 
-        HttpHeaders headers = new HttpHeaders();
-        HttpEntity<String> entity = new HttpEntity<>(headers);
+    private ContainerInfo findeContainer(String containerName, Integer endpointId) {
+        return containerStateCache.findByName(containerName, endpointId)
+                .orElseThrow(() -> new RuntimeException("Container nicht gefunden: " + containerName));
+    }
+
+    private void containerAktion(ContainerInfo container, String action) {
+        DockerApiClient client = dockerHostRegistry.getClient(container.getEndpointId());
+        String containerName = container.getName();
+        String path = String.format("/containers/%s/%s", container.getContainerId(), action);
+
+        System.out.println("Container-Aktion: " + action + " für " + container.key() + " - URL: "
+                + client.getBaseUrl() + path);
 
         try {
-            ResponseEntity<String> response = restTemplate.exchange(
-                    url, HttpMethod.POST, entity, String.class);
+            ResponseEntity<String> response = client.exchange(
+                    DockerApiClient.CallType.ACTION, action, HttpMethod.POST, path, String.class);
 
             System.out.println("Container-Aktion Antwort: " + response.getStatusCode());
 
+            // 304 Not Modified: Container ist bereits im gewünschten Zustand - für den Aufrufer ein Erfolg
+            if (response.getStatusCode() == HttpStatus.NOT_MODIFIED) {
+                System.out.println("Container " + containerName + " ist bereits im gewünschten Zustand (" + action + ")");
+                return;
+            }
+
             // Docker API gibt 204 No Content bei erfolgreichem Start/Stop zurück
             if (response.getStatusCode() != HttpStatus.NO_CONTENT) {
                 throw new RuntimeException("Aktion fehlgeschlagen: " + response.getStatusCode());
@@ -188,8 +494,6 @@ public class DockerService {
             // Spezifische Fehlermeldungen
             if (e.getStatusCode() == HttpStatus.NOT_FOUND) {
                 throw new RuntimeException("Container nicht gefunden oder bereits gelöscht");
-            } else if (e.getStatusCode() == HttpStatus.NOT_MODIFIED) {
-                throw new RuntimeException("Container ist bereits in dem gewünschten Zustand");
             } else {
                 throw new RuntimeException("Container-Aktion fehlgeschlagen: " + e.getMessage());
             }
@@ -201,46 +505,77 @@ public class DockerService {
 
 
 
+    /**
+     * Liest den aktuellen Zustand eines Containers (inkl. Healthcheck) über /containers/{id}/json
+     */
+    public DockerContainerInspect inspectContainer(ContainerInfo container) {
+        DockerApiClient client = dockerHostRegistry.getClient(container.getEndpointId());
+        ResponseEntity<DockerContainerInspect> response = client.exchange(DockerApiClient.CallType.INSPECT, "inspect",
+                HttpMethod.GET, "/containers/" + container.getContainerId() + "/json", DockerContainerInspect.class);
+        if (response.getBody() == null) {
+            throw new RuntimeException("Leere Inspect-Antwort für Container " + container.getName());
+        }
+        return response.getBody();
+    }
+
     // Neue Methode: Nur Discord-fähige Container für Discord-Bot
     public List<ContainerInfo> getDiscordEnabledContainers() {
-        return containerInfoRepository.findByDiscordEnabledTrue();
+        return containerStateCache.findByDiscordEnabledTrue();
+    }
+
+    public Optional<ContainerInfo> findeDiscordContainer(String containerName, Integer endpointId) {
+        return containerStateCache.findDiscordEnabledByNameIgnoreCase(containerName, endpointId);
+    }
+
+    public boolean isMultiHost() {
+        return dockerHostRegistry.isMultiHost();
     }
 
     // Neue Methode: Container-Aktion nur wenn Discord-berechtigt
-    public void starteContainerFuerDiscord(String containerName) {
-        Optional<ContainerInfo> containerOpt = containerInfoRepository.findById(containerName);
+    /**
+     * @return der gestartete Container (z.B. zum Verfolgen des Start-Vorgangs)
+     */
+    public ContainerInfo starteContainerFuerDiscord(String containerName, Integer endpointId) {
+        Optional<ContainerInfo> containerOpt = containerStateCache.findByName(containerName, endpointId);
         if (containerOpt.isEmpty() || !containerOpt.get().getDiscordEnabled()) {
             throw new RuntimeException("Container nicht gefunden oder nicht für Discord freigegeben: " + containerName);
         }
-        starteContainer(containerName);
+        containerAktion(containerOpt.get(), "start");
+        return containerOpt.get();
     }
 
-    public void stoppeContainerFuerDiscord(String containerName) {
-        Optional<ContainerInfo> containerOpt = containerInfoRepository.findById(containerName);
+    public ContainerInfo stoppeContainerFuerDiscord(String containerName, Integer endpointId) {
+        Optional<ContainerInfo> containerOpt = containerStateCache.findByName(containerName, endpointId);
         if (containerOpt.isEmpty() || !containerOpt.get().getDiscordEnabled()) {
             throw new RuntimeException("Container nicht gefunden oder nicht für Discord freigegeben: " + containerName);
         }
-        stoppeContainer(containerName);
+        containerAktion(containerOpt.get(), "stop");
+        return containerOpt.get();
     }
 
     // Debugging-Methode zum manuellen Testen
     public String testDockerConnection() {
-        try {
-            String versionUrl = getBaseUrl() + "/version";
-
-            HttpHeaders headers = new HttpHeaders();
-            headers.setAccept(Arrays.asList(MediaType.APPLICATION_JSON));
-            HttpEntity<String> entity = new HttpEntity<>(headers);
-
-            ResponseEntity<String> response = restTemplate.exchange(
-                    versionUrl, HttpMethod.GET, entity, String.class);
+        StringBuilder result = new StringBuilder();
+        dockerHostRegistry.getClients().forEach((endpointId, client) -> {
+            result.append("Endpoint ").append(endpointId).append(" (").append(client.getHost()).append("): ");
+            try {
+                ResponseEntity<String> response = client.exchange(
+                        DockerApiClient.CallType.LIST, "version", HttpMethod.GET, "/version", String.class);
 
-            return "Verbindung erfolgreich. Status: " + response.getStatusCode() +
-                    ", Docker Version verfügbar";
+                result.append("Verbindung erfolgreich. Status: ").append(response.getStatusCode())
+                        .append(", Docker Version verfügbar");
 
-        } catch (Exception e) {
-            return "Verbindungsfehler: " + e.getMessage();
-        }
+                PoolStats poolStats = client.getPoolStats();
+                if (poolStats != null) {
+                    result.append(" | Pool: ").append(poolStats.getLeased()).append(" belegt, ")
+                            .append(poolStats.getAvailable()).append(" frei");
+                }
+            } catch (Exception e) {
+                result.append("Verbindungsfehler: ").append(e.getMessage());
+            }
+            result.append("\n");
+        });
+        return result.toString().trim();
     }
 
 
@@ -248,7 +583,7 @@ public class DockerService {
     @Getter
     @Setter
     @JsonIgnoreProperties(ignoreUnknown = true)
-    private static class DockerContainer {
+    static class DockerContainer {
         @JsonProperty("Id")
         private String id;
 
@@ -269,12 +604,15 @@ public class DockerService {
 
         @JsonProperty("Created")
         private Long created;
+
+        @JsonProperty("Labels")
+        private Map<String, String> labels;
     }
 
     @Getter
     @Setter
     @JsonIgnoreProperties(ignoreUnknown = true)
-    private static class DockerContainerInspect {
+    public static class DockerContainerInspect {
         @JsonProperty("Id")
         private String id;
 
@@ -288,17 +626,33 @@ public class DockerService {
     @Getter
     @Setter
     @JsonIgnoreProperties(ignoreUnknown = true)
-    private static class ContainerState {
+    public static class ContainerState {
         @JsonProperty("Status")
         private String status;
 
         @JsonProperty("Running")
         private Boolean running;
 
+        @JsonProperty("ExitCode")
+        private Integer exitCode;
+
+        // Nur vorhanden, wenn das Image bzw. der Container einen Healthcheck definiert
+        @JsonProperty("Health")
+        private ContainerHealth health;
+
         @JsonProperty("StartedAt")
         private String startedAt;
 
         @JsonProperty("FinishedAt")
         private String finishedAt;
     }
+
+    @Getter
+    @Setter
+    @JsonIgnoreProperties(ignoreUnknown = true)
+    public static class ContainerHealth {
+        // starting, healthy oder unhealthy
+        @JsonProperty("Status")
+        private String status;
+    }
 }
\ No newline at end of file
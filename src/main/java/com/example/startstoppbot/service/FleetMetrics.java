@@ -0,0 +1,102 @@
+package com.example.startstoppbot.service;
+
+import com.example.startstoppbot.model.ContainerInfo;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import org.springframework.stereotype.Service;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Kennzahlen über alle Container, inkrementell gepflegt aus den Änderungen im ContainerStateCache.
+ * Jede Änderung (Abgleich, Docker-Event, Discord-Freigabe, Spielerzahl) korrigiert die Zähler um die
+ * Differenz zwischen altem und neuem Stand - es wird nie über alle Container gezählt.
+ * Veröffentlicht als Micrometer-Gauges (z.B. /actuator/prometheus).
+ */
+@Service
+public class FleetMetrics implements ContainerStateCache.Listener {
+
+    private final ContainerStateCache containerStateCache;
+
+    private final AtomicInteger total = new AtomicInteger();
+    private final AtomicInteger discordEnabled = new AtomicInteger();
+    private final AtomicInteger running = new AtomicInteger();
+    private final AtomicInteger runningDiscord = new AtomicInteger();
+    private final AtomicInteger withPlayers = new AtomicInteger();
+    private final AtomicInteger players = new AtomicInteger();
+
+    public FleetMetrics(ContainerStateCache containerStateCache, MeterRegistry meterRegistry) {
+        this.containerStateCache = containerStateCache;
+
+        registriere(meterRegistry, "fleet.containers", total, "Bekannte Container");
+        registriere(meterRegistry, "fleet.containers.discord.enabled", discordEnabled, "Container mit Discord-Steuerung");
+        registriere(meterRegistry, "fleet.containers.running", running, "Laufende Container");
+        registriere(meterRegistry, "fleet.containers.running.discord", runningDiscord, "Laufende Container mit Discord-Steuerung");
+        registriere(meterRegistry, "fleet.containers.with.players", withPlayers, "Container mit mindestens einem Spieler");
+        registriere(meterRegistry, "fleet.players", players, "Summe der gemeldeten Spieler über alle Container");
+    }
+
+    private static void registriere(MeterRegistry registry, String name, AtomicInteger wert, String beschreibung) {
+        Gauge.builder(name, wert, AtomicInteger::get)
+                .description(beschreibung)
+                .register(registry);
+    }
+
+    @PostConstruct
+    public void init() {
+        // Meldet alle bekannten Container als neu - setzt die Startwerte
+        containerStateCache.addListener(this);
+    }
+
+    @Override
+    public void geaendert(ContainerInfo vorher, ContainerInfo nachher) {
+        if (vorher != null) {
+            zaehle(vorher, -1);
+        }
+        if (nachher != null) {
+            zaehle(nachher, 1);
+        }
+    }
+
+    private void zaehle(ContainerInfo container, int delta) {
+        boolean discord = Boolean.TRUE.equals(container.getDiscordEnabled());
+        boolean laufend = "running".equalsIgnoreCase(container.getStatus());
+        int spieler = container.getCurrentPlayers() != null ? container.getCurrentPlayers() : 0;
+
+        total.addAndGet(delta);
+        if (discord) {
+            discordEnabled.addAndGet(delta);
+        }
+        if (laufend) {
+            running.addAndGet(delta);
+            if (discord) {
+                runningDiscord.addAndGet(delta);
+            }
+        }
+        if (spieler > 0) {
+            withPlayers.addAndGet(delta);
+            players.addAndGet(delta * spieler);
+        }
+    }
+
+    public int getTotal() {
+        return total.get();
+    }
+
+    public int getDiscordEnabled() {
+        return discordEnabled.get();
+    }
+
+    public int getRunning() {
+        return running.get();
+    }
+
+    public int getWithPlayers() {
+        return withPlayers.get();
+    }
+
+    public int getPlayers() {
+        return players.get();
+    }
+}
@@ -0,0 +1,184 @@
+package com.example.startstoppbot.service;
+
+import com.example.startstoppbot.model.ContainerInfo;
+import com.example.startstoppbot.model.ContainerKey;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Puffert Spielerzahl-Meldungen im Speicher und schreibt sie gesammelt in die Datenbank.
+ * Pro Container zählt nur der letzte Wert. Der Cache wird sofort aktualisiert, damit API, Discord
+ * und Auto-Stopp immer den gemeldeten Stand sehen. Unveränderte Spielerzahlen ändern den Cache nicht
+ * (kein neuer Snapshot, keine neue Cache-Version); ihr Zeitstempel wird nur hier vermerkt und erst nach
+ * player-buffer.max-timestamp-age-ms in Cache und Datenbank übernommen.
+ */
+@Service
+public class PlayerCountBuffer {
+
+    @Value("${player-buffer.max-timestamp-age-ms:300000}")
+    private long maxTimestampAgeMs;
+
+    // Set-basiertes Update ohne vorheriges Laden der Entities; max_players bleibt bei null unverändert
+    private static final String UPDATE_SQL = "UPDATE container_info SET current_players = ?, "
+            + "max_players = COALESCE(?, max_players), last_player_update = ? WHERE endpoint_id = ? AND name = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ContainerStateCache containerStateCache;
+    private final PlayerHistoryService playerHistoryService;
+    private final TransactionTemplate transactionTemplate;
+
+    // Noch nicht geschriebene Änderungen je Container
+    private final Map<ContainerKey, PendingUpdate> pending = new ConcurrentHashMap<>();
+
+    // Zeitpunkt der letzten Meldung je Container - kann neuer sein als lastPlayerUpdate im Cache
+    private final Map<ContainerKey, LocalDateTime> letzteMeldungen = new ConcurrentHashMap<>();
+
+    private final Counter skippedCounter;
+    private final Counter bufferedCounter;
+
+    public PlayerCountBuffer(JdbcTemplate jdbcTemplate, ContainerStateCache containerStateCache,
+                             PlayerHistoryService playerHistoryService, PlatformTransactionManager transactionManager,
+                             MeterRegistry meterRegistry) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.containerStateCache = containerStateCache;
+        this.playerHistoryService = playerHistoryService;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+
+        Gauge.builder("player.buffer.pending", pending, Map::size)
+                .description("Gepufferte, noch nicht geschriebene Spielerzahl-Änderungen")
+                .register(meterRegistry);
+        this.skippedCounter = Counter.builder("player.buffer.updates")
+                .tag("result", "unchanged")
+                .description("Spielerzahl-Meldungen nach Ergebnis")
+                .register(meterRegistry);
+        this.bufferedCounter = Counter.builder("player.buffer.updates")
+                .tag("result", "buffered")
+                .description("Spielerzahl-Meldungen nach Ergebnis")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Übernimmt eine Spielerzahl-Meldung sofort in den Cache und merkt sie zum Schreiben vor.
+     * @param maxPlayers neue maximale Spielerzahl oder null (unverändert)
+     * @param updateTime Zeitpunkt der Meldung, null setzt den Zeitstempel zurück
+     * @return false, wenn der Container nicht (mehr) bekannt ist
+     */
+    public boolean melde(ContainerKey key, Integer currentPlayers, Integer maxPlayers, LocalDateTime updateTime) {
+        Optional<ContainerInfo> cached = containerStateCache.findByKey(key);
+        if (cached.isEmpty()) {
+            return false;
+        }
+
+        ContainerInfo current = cached.get();
+        boolean changed = !Objects.equals(current.getCurrentPlayers(), currentPlayers)
+                || (maxPlayers != null && !Objects.equals(current.getMaxPlayers(), maxPlayers))
+                || (updateTime == null) != (current.getLastPlayerUpdate() == null);
+
+        if (updateTime != null) {
+            letzteMeldungen.put(key, updateTime);
+        } else {
+            letzteMeldungen.remove(key);
+        }
+
+        // Verlauf erhält jede Meldung, auch unveränderte (für Durchschnittswerte)
+        if (currentPlayers != null && updateTime != null) {
+            playerHistoryService.erfasse(key, currentPlayers, updateTime);
+        }
+
+        if (changed || zeitstempelVeraltet(current.getLastPlayerUpdate(), updateTime)) {
+            containerStateCache.aendere(key, c -> {
+                c.setCurrentPlayers(currentPlayers);
+                if (maxPlayers != null) {
+                    c.setMaxPlayers(maxPlayers);
+                }
+                c.setLastPlayerUpdate(updateTime);
+            });
+            pending.merge(key, new PendingUpdate(currentPlayers, maxPlayers, updateTime), PendingUpdate::uebernehme);
+            bufferedCounter.increment();
+        } else {
+            skippedCounter.increment();
+        }
+        return true;
+    }
+
+    private boolean zeitstempelVeraltet(LocalDateTime gespeichert, LocalDateTime updateTime) {
+        return gespeichert != null && updateTime != null
+                && Duration.between(gespeichert, updateTime).toMillis() >= maxTimestampAgeMs;
+    }
+
+    /**
+     * @return Zeitpunkt der letzten Spielerzahl-Meldung, auch einer unveränderten, die noch nicht im Cache steht;
+     * null, wenn der Container keinen Zeitstempel hat
+     */
+    public LocalDateTime letzteMeldung(ContainerInfo container) {
+        LocalDateTime gespeichert = container.getLastPlayerUpdate();
+        LocalDateTime gemeldet = letzteMeldungen.get(container.key());
+        return gespeichert == null || gemeldet == null || gemeldet.isBefore(gespeichert) ? gespeichert : gemeldet;
+    }
+
+    /**
+     * Schreibt alle gepufferten Änderungen in einer Transaktion als ein JDBC-Batch (kein SELECT vorab)
+     */
+    @Scheduled(fixedDelayString = "${player-buffer.flush-interval-ms:5000}")
+    public void flush() {
+        if (pending.isEmpty()) {
+            return;
+        }
+
+        // Einträge einzeln entnehmen - gleichzeitige Meldungen landen im nächsten Durchlauf
+        Map<ContainerKey, PendingUpdate> batch = new HashMap<>();
+        for (ContainerKey key : new ArrayList<>(pending.keySet())) {
+            PendingUpdate update = pending.remove(key);
+            if (update != null) {
+                batch.put(key, update);
+            }
+        }
+
+        try {
+            List<Object[]> args = new ArrayList<>(batch.size());
+            batch.forEach((key, update) -> args.add(new Object[]{
+                    update.currentPlayers,
+                    update.maxPlayers,
+                    update.updateTime != null ? Timestamp.valueOf(update.updateTime) : null,
+                    key.getEndpointId(),
+                    key.getName()
+            }));
+            transactionTemplate.executeWithoutResult(status -> jdbcTemplate.batchUpdate(UPDATE_SQL, args));
+        } catch (Exception e) {
+            System.err.println("Fehler beim Schreiben der Spielerzahlen: " + e.getMessage());
+            // Für den nächsten Versuch zurücklegen, neuere Meldungen haben Vorrang
+            batch.forEach((key, update) -> pending.merge(key, update, (neuer, alt) -> alt.uebernehme(neuer)));
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        flush();
+    }
+
+    private record PendingUpdate(Integer currentPlayers, Integer maxPlayers, LocalDateTime updateTime) {
+
+        /**
+         * Neuere Meldung gewinnt, ein zuvor gemeldetes Maximum bleibt erhalten
+         */
+        PendingUpdate uebernehme(PendingUpdate neuer) {
+            return new PendingUpdate(neuer.currentPlayers,
+                    neuer.maxPlayers != null ? neuer.maxPlayers : maxPlayers,
+                    neuer.updateTime);
+        }
+    }
+}
@@ -0,0 +1,556 @@
+package com.example.startstoppbot.service;
+
+import com.example.startstoppbot.model.ContainerKey;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.io.*;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.*;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Verlauf der Spielerzahlen je Container für Auswertungen (z.B. Spitzenwerte pro Tag).
+ * Die letzten Meldungen liegen in Ringpuffern aus primitiven Arrays, ältere Daten werden zu
+ * Minuten- und Stunden-Buckets (Min/Max/Durchschnitt) verdichtet. Abgeschlossene Stunden werden
+ * an eine Binärdatei angehängt und beim Start wieder eingelesen. Die Puffer wachsen mit den Daten
+ * bis zu ihrer festen Kapazität, der Speicherbedarf wächst daher nicht mit der Laufzeit. Die Datei
+ * wird regelmäßig auf den im Speicher gehaltenen Zeitraum verdichtet.
+ */
+@Service
+public class PlayerHistoryService {
+
+    private static final long MINUTE_MS = 60_000L;
+    private static final long HOUR_MS = 3_600_000L;
+
+    @Value("${player-history.enabled:true}")
+    private boolean enabled;
+
+    @Value("${player-history.file:/DATA/StartStoppBotDc/history/player-history.dat}")
+    private String historyFile;
+
+    @Value("${player-history.raw-capacity:720}")
+    private int rawCapacity;
+
+    @Value("${player-history.minute-capacity:1440}")
+    private int minuteCapacity;
+
+    @Value("${player-history.hour-capacity:2160}")
+    private int hourCapacity;
+
+    private final ContainerStateCache containerStateCache;
+    private final Map<ContainerKey, Serie> serien = new ConcurrentHashMap<>();
+    private final Object fileLock = new Object();
+    // Einträge in der Verlaufsdatei (unter fileLock)
+    private long eintraegeInDatei;
+
+    public PlayerHistoryService(ContainerStateCache containerStateCache) {
+        this.containerStateCache = containerStateCache;
+    }
+
+    /**
+     * Ein Messwert bzw. ein verdichteter Zeitraum
+     */
+    public record Punkt(long startMillis, int min, int max, double avg, int samples) {
+    }
+
+    @PostConstruct
+    public void laden() {
+        if (!enabled) {
+            return;
+        }
+
+        Path path = Path.of(historyFile);
+        if (!Files.exists(path)) {
+            return;
+        }
+
+        int records = 0;
+        boolean unvollstaendig = false;
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(path)))) {
+            while (true) {
+                int endpointId;
+                try {
+                    endpointId = in.readInt();
+                } catch (EOFException e) {
+                    break;
+                }
+                String name = in.readUTF();
+                long start = in.readLong();
+                int min = in.readInt();
+                int max = in.readInt();
+                long sum = in.readLong();
+                int count = in.readInt();
+                records++;
+
+                // Verlauf gelöschter Container wird nicht mehr geladen
+                ContainerKey key = new ContainerKey(endpointId, name);
+                if (containerStateCache.findByKey(key).isPresent()) {
+                    serie(key).hours.add(start, min, max, sum, count);
+                }
+            }
+        } catch (EOFException e) {
+            // Unvollständiger letzter Eintrag (z.B. Absturz beim Schreiben) - Rest ist gültig
+            System.err.println("Spielerverlauf endet mit unvollständigem Eintrag - wird beim Verdichten entfernt");
+            unvollstaendig = true;
+        } catch (IOException e) {
+            System.err.println("Fehler beim Laden des Spielerverlaufs: " + e.getMessage());
+            return;
+        }
+
+        int retained = gehalteneStunden();
+        System.out.println("Spielerverlauf geladen: " + records + " Einträge, " + retained + " Stunden im Speicher");
+
+        synchronized (fileLock) {
+            eintraegeInDatei = records;
+        }
+        // Datei auf den im Speicher gehaltenen Zeitraum verdichten, damit sie nicht unbegrenzt wächst
+        if (unvollstaendig || records > retained * 2L + 100) {
+            verdichteDatei(path);
+        }
+    }
+
+    /**
+     * Verdichtet die Datei auch im laufenden Betrieb: sie wird nur angehängt und enthielte sonst alle
+     * Stunden seit dem letzten Start, auch die aus den Ringpuffern verdrängten und gelöschter Container.
+     * Verdichtet wird erst, wenn die Datei deutlich mehr enthält als im Speicher gehalten wird.
+     */
+    @Scheduled(fixedDelayString = "${player-history.compact-interval-ms:86400000}",
+            initialDelayString = "${player-history.compact-interval-ms:86400000}")
+    public void verdichte() {
+        if (!enabled) {
+            return;
+        }
+        long eintraege;
+        synchronized (fileLock) {
+            eintraege = eintraegeInDatei;
+        }
+        if (eintraege > gehalteneStunden() * 2L + 100) {
+            verdichteDatei(Path.of(historyFile));
+        }
+    }
+
+    private int gehalteneStunden() {
+        int stunden = 0;
+        for (Serie serie : serien.values()) {
+            synchronized (serie) {
+                stunden += serie.hours.size;
+            }
+        }
+        return stunden;
+    }
+
+    /**
+     * Nimmt eine Spielerzahl-Meldung in den Verlauf auf
+     */
+    public void erfasse(ContainerKey key, int players, LocalDateTime time) {
+        if (!enabled) {
+            return;
+        }
+
+        long millis = time.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+        Serie serie = serie(key);
+        BucketRecord abgeschlossen;
+        synchronized (serie) {
+            abgeschlossen = serie.rolleAb(millis);
+            serie.raw.add(millis, players);
+            serie.minute.add(millis - millis % MINUTE_MS, players);
+            serie.hour.add(millis - millis % HOUR_MS, players);
+        }
+        schreibe(key, abgeschlossen);
+    }
+
+    /**
+     * Schließt abgelaufene Minuten und Stunden auch für Container ohne neue Meldungen ab
+     * und entfernt den Verlauf nicht mehr existierender Container aus dem Speicher
+     */
+    @Scheduled(fixedRate = 60000)
+    public void rolleAb() {
+        if (!enabled) {
+            return;
+        }
+
+        long now = System.currentTimeMillis();
+        for (Map.Entry<ContainerKey, Serie> entry : serien.entrySet()) {
+            Serie serie = entry.getValue();
+            BucketRecord abgeschlossen;
+            synchronized (serie) {
+                abgeschlossen = serie.rolleAb(now);
+            }
+            schreibe(entry.getKey(), abgeschlossen);
+
+            if (containerStateCache.findByKey(entry.getKey()).isEmpty()) {
+                serien.remove(entry.getKey());
+            }
+        }
+    }
+
+    /**
+     * Schreibt die angefangene Stunde beim Beenden, damit sie nach dem Neustart nicht fehlt
+     */
+    @PreDestroy
+    public void speichere() {
+        if (!enabled) {
+            return;
+        }
+
+        for (Map.Entry<ContainerKey, Serie> entry : serien.entrySet()) {
+            Serie serie = entry.getValue();
+            BucketRecord offen;
+            synchronized (serie) {
+                offen = serie.hour.toRecord();
+                serie.hour.reset();
+            }
+            schreibe(entry.getKey(), offen);
+        }
+    }
+
+    // ===== Abfragen =====
+
+    public List<Punkt> rohdaten(ContainerKey key, long fromMillis, long toMillis) {
+        Serie serie = serien.get(key);
+        if (serie == null) {
+            return List.of();
+        }
+
+        List<Punkt> result = new ArrayList<>();
+        synchronized (serie) {
+            RawRing raw = serie.raw;
+            for (int i = 0; i < raw.size; i++) {
+                int index = raw.index(i);
+                long time = raw.times[index];
+                if (time >= fromMillis && time < toMillis) {
+                    int value = raw.values[index];
+                    result.add(new Punkt(time, value, value, value, 1));
+                }
+            }
+        }
+        return result;
+    }
+
+    public List<Punkt> minuten(ContainerKey key, long fromMillis, long toMillis) {
+        Serie serie = serien.get(key);
+        if (serie == null) {
+            return List.of();
+        }
+        synchronized (serie) {
+            return serie.minutes.bereich(serie.minute, fromMillis, toMillis);
+        }
+    }
+
+    public List<Punkt> stunden(ContainerKey key, long fromMillis, long toMillis) {
+        Serie serie = serien.get(key);
+        if (serie == null) {
+            return List.of();
+        }
+        synchronized (serie) {
+            return serie.hours.bereich(serie.hour, fromMillis, toMillis);
+        }
+    }
+
+    /**
+     * Spitzen- und Durchschnittswert je Kalendertag aus den Stunden-Buckets
+     */
+    public Map<LocalDate, Punkt> tageswerte(ContainerKey key, int days) {
+        ZoneId zone = ZoneId.systemDefault();
+        long from = LocalDate.now(zone).minusDays(days - 1L).atStartOfDay(zone).toInstant().toEpochMilli();
+
+        Map<LocalDate, Punkt> result = new TreeMap<>();
+        for (Punkt stunde : stunden(key, from, Long.MAX_VALUE)) {
+            LocalDate day = Instant.ofEpochMilli(stunde.startMillis()).atZone(zone).toLocalDate();
+            long dayStart = day.atStartOfDay(zone).toInstant().toEpochMilli();
+            Punkt tag = new Punkt(dayStart, stunde.min(), stunde.max(), stunde.avg(), stunde.samples());
+            result.merge(day, tag, (a, b) -> {
+                int samples = a.samples() + b.samples();
+                double avg = (a.avg() * a.samples() + b.avg() * b.samples()) / samples;
+                return new Punkt(dayStart, Math.min(a.min(), b.min()), Math.max(a.max(), b.max()), avg, samples);
+            });
+        }
+        return result;
+    }
+
+    // ===== Datei =====
+
+    private void schreibe(ContainerKey key, BucketRecord record) {
+        if (record == null) {
+            return;
+        }
+
+        synchronized (fileLock) {
+            try {
+                Path path = Path.of(historyFile);
+                if (path.getParent() != null) {
+                    Files.createDirectories(path.getParent());
+                }
+                try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(
+                        new FileOutputStream(path.toFile(), true)))) {
+                    schreibeEintrag(out, key, record);
+                }
+                eintraegeInDatei++;
+            } catch (IOException e) {
+                System.err.println("Fehler beim Schreiben des Spielerverlaufs: " + e.getMessage());
+            }
+        }
+    }
+
+    private void verdichteDatei(Path path) {
+        synchronized (fileLock) {
+            Path tmp = path.resolveSibling(path.getFileName() + ".tmp");
+            long geschrieben = 0;
+            try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(tmp)))) {
+                for (Map.Entry<ContainerKey, Serie> entry : serien.entrySet()) {
+                    // Nur die abgeschlossenen Stunden - Meldungen laufen währenddessen in die offene Stunde
+                    List<BucketRecord> records = new ArrayList<>();
+                    Serie serie = entry.getValue();
+                    synchronized (serie) {
+                        BucketRing hours = serie.hours;
+                        for (int i = 0; i < hours.size; i++) {
+                            int index = hours.index(i);
+                            records.add(new BucketRecord(hours.start[index], hours.min[index],
+                                    hours.max[index], hours.sum[index], hours.count[index]));
+                        }
+                    }
+                    for (BucketRecord record : records) {
+                        schreibeEintrag(out, entry.getKey(), record);
+                    }
+                    geschrieben += records.size();
+                }
+            } catch (IOException e) {
+                System.err.println("Fehler beim Verdichten des Spielerverlaufs: " + e.getMessage());
+                return;
+            }
+
+            try {
+                Files.move(tmp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+                System.out.println("Spielerverlauf verdichtet: " + eintraegeInDatei + " -> " + geschrieben + " Einträge");
+                eintraegeInDatei = geschrieben;
+            } catch (IOException e) {
+                System.err.println("Fehler beim Ersetzen der Verlaufsdatei: " + e.getMessage());
+            }
+        }
+    }
+
+    private static void schreibeEintrag(DataOutputStream out, ContainerKey key, BucketRecord record) throws IOException {
+        // 4 + 2+Name + 8 + 4 + 4 + 8 + 4 Bytes je Stunde und Container
+        out.writeInt(key.getEndpointId());
+        out.writeUTF(key.getName());
+        out.writeLong(record.start());
+        out.writeInt(record.min());
+        out.writeInt(record.max());
+        out.writeLong(record.sum());
+        out.writeInt(record.count());
+    }
+
+    private Serie serie(ContainerKey key) {
+        return serien.computeIfAbsent(key, k -> new Serie(rawCapacity, minuteCapacity, hourCapacity));
+    }
+
+    // ===== Datenstrukturen =====
+
+    private record BucketRecord(long start, int min, int max, long sum, int count) {
+    }
+
+    private static final class Serie {
+        private final RawRing raw;
+        private final BucketRing minutes;
+        private final BucketRing hours;
+        private final Aggregat minute = new Aggregat();
+        private final Aggregat hour = new Aggregat();
+
+        private Serie(int rawCapacity, int minuteCapacity, int hourCapacity) {
+            this.raw = new RawRing(rawCapacity);
+            this.minutes = new BucketRing(minuteCapacity);
+            this.hours = new BucketRing(hourCapacity);
+        }
+
+        /**
+         * Überträgt abgelaufene Aggregate in die Ringpuffer
+         * @return abgeschlossene Stunde zum Schreiben in die Datei oder null
+         */
+        private BucketRecord rolleAb(long now) {
+            if (!minute.leer() && now - minute.start >= MINUTE_MS) {
+                minutes.add(minute.start, minute.min, minute.max, minute.sum, minute.count);
+                minute.reset();
+            }
+            if (!hour.leer() && now - hour.start >= HOUR_MS) {
+                BucketRecord record = hour.toRecord();
+                hours.add(hour.start, hour.min, hour.max, hour.sum, hour.count);
+                hour.reset();
+                return record;
+            }
+            return null;
+        }
+    }
+
+    /**
+     * Laufendes Min/Max/Summe-Aggregat für die aktuelle Minute bzw. Stunde
+     */
+    private static final class Aggregat {
+        private long start = -1;
+        private int min;
+        private int max;
+        private long sum;
+        private int count;
+
+        private void add(long bucketStart, int value) {
+            if (count == 0) {
+                start = bucketStart;
+                min = value;
+                max = value;
+            } else {
+                min = Math.min(min, value);
+                max = Math.max(max, value);
+            }
+            sum += value;
+            count++;
+        }
+
+        private boolean leer() {
+            return count == 0;
+        }
+
+        private void reset() {
+            start = -1;
+            sum = 0;
+            count = 0;
+        }
+
+        private BucketRecord toRecord() {
+            return leer() ? null : new BucketRecord(start, min, max, sum, count);
+        }
+    }
+
+    /**
+     * Neue Arraylänge beim Wachsen eines Ringpuffers: verdoppeln, höchstens bis zur Kapazität
+     */
+    private static int wachse(int laenge, int capacity) {
+        return Math.min(capacity, Math.max(16, laenge * 2));
+    }
+
+    /**
+     * Letzte Einzelmeldungen als Zeitstempel/Wert-Paare in zwei primitiven Arrays. Die Arrays beginnen leer
+     * und wachsen bis zur Kapazität - Container mit wenigen oder ohne Meldungen belegen kaum Speicher.
+     */
+    private static final class RawRing {
+        private final int capacity;
+        private long[] times = new long[0];
+        private int[] values = new int[0];
+        private int head;
+        private int size;
+
+        private RawRing(int capacity) {
+            this.capacity = capacity;
+        }
+
+        private void add(long time, int value) {
+            if (size == times.length && size < capacity) {
+                // Noch nicht umgelaufen: Einträge liegen bei 0..size-1
+                int laenge = wachse(times.length, capacity);
+                times = Arrays.copyOf(times, laenge);
+                values = Arrays.copyOf(values, laenge);
+                head = size;
+            }
+            times[head] = time;
+            values[head] = value;
+            head = (head + 1) % times.length;
+            if (size < times.length) {
+                size++;
+            }
+        }
+
+        // Index des i-ältesten Eintrags
+        private int index(int i) {
+            return Math.floorMod(head - size + i, times.length);
+        }
+    }
+
+    /**
+     * Verdichtete Zeiträume (Start, Min, Max, Summe, Anzahl) in primitiven Arrays, wachsend wie RawRing
+     */
+    private static final class BucketRing {
+        private final int capacity;
+        private long[] start = new long[0];
+        private int[] min = new int[0];
+        private int[] max = new int[0];
+        private long[] sum = new long[0];
+        private int[] count = new int[0];
+        private int head;
+        private int size;
+
+        private BucketRing(int capacity) {
+            this.capacity = capacity;
+        }
+
+        private void add(long bucketStart, int bucketMin, int bucketMax, long bucketSum, int bucketCount) {
+            if (size > 0) {
+                int last = index(size - 1);
+                if (start[last] == bucketStart) {
+                    // Gleicher Zeitraum (z.B. angefangene Stunde vor einem Neustart) - zusammenführen
+                    min[last] = Math.min(min[last], bucketMin);
+                    max[last] = Math.max(max[last], bucketMax);
+                    sum[last] += bucketSum;
+                    count[last] += bucketCount;
+                    return;
+                }
+                if (start[last] > bucketStart) {
+                    // Ältere Einträge als der letzte werden ignoriert, die Reihenfolge bleibt aufsteigend
+                    return;
+                }
+            }
+            if (size == start.length && size < capacity) {
+                int laenge = wachse(start.length, capacity);
+                start = Arrays.copyOf(start, laenge);
+                min = Arrays.copyOf(min, laenge);
+                max = Arrays.copyOf(max, laenge);
+                sum = Arrays.copyOf(sum, laenge);
+                count = Arrays.copyOf(count, laenge);
+                head = size;
+            }
+            start[head] = bucketStart;
+            min[head] = bucketMin;
+            max[head] = bucketMax;
+            sum[head] = bucketSum;
+            count[head] = bucketCount;
+            head = (head + 1) % start.length;
+            if (size < start.length) {
+                size++;
+            }
+        }
+
+        private int index(int i) {
+            return Math.floorMod(head - size + i, start.length);
+        }
+
+        /**
+         * Buckets im Zeitraum inkl. des noch offenen Aggregats
+         */
+        private List<Punkt> bereich(Aggregat offen, long fromMillis, long toMillis) {
+            List<Punkt> result = new ArrayList<>();
+            for (int i = 0; i < size; i++) {
+                int index = index(i);
+                if (start[index] >= fromMillis && start[index] < toMillis) {
+                    result.add(new Punkt(start[index], min[index], max[index],
+                            (double) sum[index] / count[index], count[index]));
+                }
+            }
+            if (!offen.leer() && offen.start >= fromMillis && offen.start < toMillis) {
+                if (!result.isEmpty() && result.get(result.size() - 1).startMillis() == offen.start) {
+                    // Angefangene Stunde aus der Datei und seit dem Neustart erfasste Werte zusammenfassen
+                    Punkt last = result.remove(result.size() - 1);
+                    int samples = last.samples() + offen.count;
+                    result.add(new Punkt(offen.start, Math.min(last.min(), offen.min), Math.max(last.max(), offen.max),
+                            (last.avg() * last.samples() + offen.sum) / samples, samples));
+                } else {
+                    result.add(new Punkt(offen.start, offen.min, offen.max, (double) offen.sum / offen.count, offen.count));
+                }
+            }
+            return result;
+        }
+    }
+}
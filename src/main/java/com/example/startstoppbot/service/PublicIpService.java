@@ -1,60 +1,296 @@
 package com.example.startstoppbot.service;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
-import org.springframework.web.client.RestTemplate;
-import org.springframework.web.client.RestClientException;
 
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Liefert die öffentliche IP-Adresse aus dem Speicher. Der Wert wird im Hintergrund regelmäßig erneuert
+ * und gilt public-ip.ttl-ms lang; erst danach wird beim Aufruf synchron abgefragt.
+ * Abfragen sind gestaffelt parallel (Hedging): der bisher schnellste Anbieter startet sofort, jeder weitere
+ * nach public-ip.hedge-delay-ms oder sofort, wenn ein Anbieter fehlschlägt. Die erste gültige Antwort gewinnt.
+ * Langsame oder fehlerhafte Anbieter rutschen in der Reihenfolge nach hinten.
+ */
 @Service
 public class PublicIpService {
 
-    private final RestTemplate restTemplate;
+    @Value("${public-ip.providers:https://api.ipify.org,https://icanhazip.com,https://httpbin.org/ip}")
+    private List<String> providerUrls;
+
+    @Value("${public-ip.ttl-ms:600000}")
+    private long ttlMs;
+
+    @Value("${public-ip.timeout-ms:2000}")
+    private long timeoutMs;
+
+    @Value("${public-ip.hedge-delay-ms:300}")
+    private long hedgeDelayMs;
+
+    // IPv4 oder IPv6 (nur Hex-Ziffern, Doppelpunkte und ggf. eingebettetes IPv4)
+    private static final Pattern IP_PATTERN = Pattern.compile(
+            "^((25[0-5]|2[0-4]\\d|1?\\d?\\d)(\\.(25[0-5]|2[0-4]\\d|1?\\d?\\d)){3}|[0-9a-fA-F:.]*:[0-9a-fA-F:.]*)$");
+    // httpbin.org/ip antwortet mit {"origin":"1.2.3.4"} (bei Proxys auch "1.2.3.4, 5.6.7.8")
+    private static final Pattern ORIGIN_PATTERN = Pattern.compile("\"origin\"\\s*:\\s*\"([^\",]+)");
+
+    private final MeterRegistry meterRegistry;
+    private final HttpClient httpClient;
+
+    private List<Provider> providers;
+    private volatile CachedIp cached;
+    private final AtomicReference<CompletableFuture<String>> laufendeAbfrage = new AtomicReference<>();
+
+    private record CachedIp(String ip, long abgerufenNanos) {
+    }
+
+    /**
+     * Anbieter mit gleitendem Mittel der Antwortzeit und Anzahl aufeinanderfolgender Fehler
+     */
+    private static final class Provider {
+        private final URI uri;
+        private final String name;
+        private volatile double latenzMs;
+        private volatile int fehlerInFolge;
+
+        private Provider(URI uri, double startLatenzMs) {
+            this.uri = uri;
+            this.name = uri.getHost();
+            this.latenzMs = startLatenzMs;
+        }
+
+        private synchronized void erfolg(long millis) {
+            latenzMs = latenzMs * 0.7 + millis * 0.3;
+            fehlerInFolge = 0;
+        }
+
+        private synchronized void fehler() {
+            fehlerInFolge++;
+        }
+
+        /**
+         * Ein abgebrochener Aufruf (ein anderer Anbieter war schneller) war mindestens so langsam
+         */
+        private synchronized void abgebrochen(long millis) {
+            latenzMs = Math.max(latenzMs, latenzMs * 0.7 + millis * 0.3);
+        }
+
+        private double bewertung(long timeoutMs) {
+            return latenzMs + (double) fehlerInFolge * timeoutMs;
+        }
+    }
+
+    public PublicIpService(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+        this.httpClient = HttpClient.newBuilder()
+                .executor(Executors.newVirtualThreadPerTaskExecutor())
+                .followRedirects(HttpClient.Redirect.NORMAL)
+                .connectTimeout(Duration.ofSeconds(2))
+                .build();
+    }
 
-    public PublicIpService() {
-        this.restTemplate = new RestTemplate();
+    @PostConstruct
+    public void init() {
+        // Konfigurierte Reihenfolge als Startwert, bis echte Messwerte vorliegen
+        AtomicInteger index = new AtomicInteger();
+        providers = providerUrls.stream()
+                .map(String::trim)
+                .filter(url -> !url.isEmpty())
+                .map(url -> new Provider(URI.create(url), index.getAndIncrement()))
+                .toList();
     }
 
     /**
-     * Ruft die öffentliche IP-Adresse über einen externen Service ab
+     * Gibt die öffentliche IP-Adresse zurück - im Normalfall ohne Netzwerkzugriff aus dem Speicher
      * @return Die öffentliche IP-Adresse als String
      * @throws RuntimeException wenn die IP nicht abgerufen werden kann
      */
     public String getPublicIp() {
-        try {
-            // Primärer Service: ipify.org
-            String ip = restTemplate.getForObject("https://api.ipify.org", String.class);
-            if (ip != null && !ip.trim().isEmpty()) {
-                return ip.trim();
-            }
-        } catch (RestClientException e) {
-            System.err.println("Fehler beim Abrufen der IP von ipify.org: " + e.getMessage());
+        CachedIp aktuell = cached;
+        if (aktuell != null && System.nanoTime() - aktuell.abgerufenNanos() < TimeUnit.MILLISECONDS.toNanos(ttlMs)) {
+            return aktuell.ip();
         }
 
         try {
-            // Fallback Service: httpbin.org
-            String response = restTemplate.getForObject("https://httpbin.org/ip", String.class);
-            if (response != null) {
-                // Response Format: {"origin":"123.456.789.123"}
-                String ip = response.replaceAll(".*\"origin\":\"([^\"]+)\".*", "$1");
-                if (!ip.equals(response) && !ip.trim().isEmpty()) {
-                    return ip.trim();
+            // Spätestens nach dem letzten gestaffelten Start plus dessen Timeout ist die Abfrage beendet
+            long maxWarteMs = (providers.size() - 1) * hedgeDelayMs + timeoutMs + 500;
+            return abfragen().get(maxWarteMs, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (Exception e) {
+            System.err.println("Fehler beim Abrufen der öffentlichen IP: " + e.getMessage());
+        }
+
+        if (aktuell != null) {
+            // Abgelaufener Wert ist besser als keine Antwort - die IP ändert sich selten
+            System.err.println("Verwende zuletzt bekannte öffentliche IP " + aktuell.ip());
+            return aktuell.ip();
+        }
+        throw new RuntimeException("Konnte öffentliche IP-Adresse nicht abrufen. Alle Services sind nicht erreichbar.");
+    }
+
+    /**
+     * Erneuert die IP im Hintergrund (wartet nicht auf das Ergebnis)
+     */
+    @Scheduled(fixedDelayString = "${public-ip.refresh-interval-ms:300000}")
+    public void aktualisiere() {
+        abfragen();
+    }
+
+    /**
+     * Startet eine gestaffelte Abfrage oder schließt sich einer bereits laufenden an
+     */
+    private CompletableFuture<String> abfragen() {
+        CompletableFuture<String> ergebnis = new CompletableFuture<>();
+        CompletableFuture<String> vorhanden = laufendeAbfrage.compareAndExchange(null, ergebnis);
+        if (vorhanden != null) {
+            return vorhanden;
+        }
+        if (providers.isEmpty()) {
+            laufendeAbfrage.set(null);
+            ergebnis.completeExceptionally(new IllegalStateException("Keine Anbieter in public-ip.providers konfiguriert"));
+            return ergebnis;
+        }
+
+        List<Provider> reihenfolge = providers.stream()
+                .sorted(Comparator.comparingDouble(p -> p.bewertung(timeoutMs)))
+                .toList();
+        Hedge hedge = new Hedge(reihenfolge, ergebnis);
+
+        ergebnis.whenComplete((ip, fehler) -> {
+            laufendeAbfrage.set(null);
+            hedge.abbrechen();
+            if (ip != null) {
+                CachedIp vorher = cached;
+                cached = new CachedIp(ip, System.nanoTime());
+                if (vorher == null || !vorher.ip().equals(ip)) {
+                    System.out.println("Öffentliche IP: " + ip);
                 }
             }
-        } catch (RestClientException e) {
-            System.err.println("Fehler beim Abrufen der IP von httpbin.org: " + e.getMessage());
+        });
+
+        hedge.starteNaechsten();
+        return ergebnis;
+    }
+
+    /**
+     * Eine gestaffelte Abfrage über alle Anbieter
+     */
+    private final class Hedge {
+        private final List<Provider> reihenfolge;
+        private final CompletableFuture<String> ergebnis;
+        private final AtomicInteger naechster = new AtomicInteger();
+        private final AtomicInteger offen;
+        // Futures aus sendAsync - nur für deren Abbruch sichert HttpClient zu, dass auch der HTTP-Austausch endet
+        private final List<CompletableFuture<?>> aufrufe = new CopyOnWriteArrayList<>();
+
+        private Hedge(List<Provider> reihenfolge, CompletableFuture<String> ergebnis) {
+            this.reihenfolge = reihenfolge;
+            this.ergebnis = ergebnis;
+            this.offen = new AtomicInteger(reihenfolge.size());
         }
 
-        try {
-            // Zweiter Fallback: icanhazip.com
-            String ip = restTemplate.getForObject("https://icanhazip.com", String.class);
-            if (ip != null && !ip.trim().isEmpty()) {
-                return ip.trim();
+        private void starteNaechsten() {
+            if (ergebnis.isDone()) {
+                return;
+            }
+            int index = naechster.getAndIncrement();
+            if (index >= reihenfolge.size()) {
+                return;
+            }
+            Provider provider = reihenfolge.get(index);
+            CompletableFuture<?> aufruf = frage(provider);
+            aufrufe.add(aufruf);
+            if (ergebnis.isDone()) {
+                // Ergebnis kam zwischen Prüfung und Start - abbrechen() hat diesen Aufruf nicht mehr gesehen
+                aufruf.cancel(true);
+                return;
             }
-        } catch (RestClientException e) {
-            System.err.println("Fehler beim Abrufen der IP von icanhazip.com: " + e.getMessage());
+
+            // Ohne Antwort bis zur Hedge-Verzögerung zusätzlich den nächsten Anbieter fragen
+            CompletableFuture.delayedExecutor(hedgeDelayMs, TimeUnit.MILLISECONDS).execute(this::starteNaechsten);
         }
 
-        throw new RuntimeException("Konnte öffentliche IP-Adresse nicht abrufen. Alle Services sind nicht erreichbar.");
+        /**
+         * @return der Austausch selbst (zum Abbrechen), das Ergebnis wird über die Hedge gemeldet
+         */
+        private CompletableFuture<HttpResponse<String>> frage(Provider provider) {
+            HttpRequest request = HttpRequest.newBuilder(provider.uri)
+                    .timeout(Duration.ofMillis(timeoutMs))
+                    .header("User-Agent", "StartStoppBot")
+                    .GET()
+                    .build();
+            long start = System.nanoTime();
+
+            CompletableFuture<HttpResponse<String>> austausch =
+                    httpClient.sendAsync(request, HttpResponse.BodyHandlers.ofString());
+            austausch.thenApply(response -> parse(provider, response))
+                    .whenComplete((ip, fehler) -> {
+                        long millis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+                        String outcome;
+                        if (ip != null) {
+                            provider.erfolg(millis);
+                            outcome = "success";
+                            ergebnis.complete(ip);
+                        } else if (ergebnis.isDone()) {
+                            provider.abgebrochen(millis);
+                            outcome = "cancelled";
+                        } else {
+                            provider.fehler();
+                            outcome = "failure";
+                            System.err.println("Fehler beim Abrufen der IP von " + provider.name + ": " + fehler.getMessage());
+                            // Fehler: nicht auf die Hedge-Verzögerung warten
+                            starteNaechsten();
+                        }
+
+                        if (ip == null && offen.decrementAndGet() == 0) {
+                            ergebnis.completeExceptionally(new RuntimeException("Alle IP-Anbieter fehlgeschlagen"));
+                        }
+
+                        Timer.builder("public.ip.lookup")
+                                .description("Antwortzeit der Anbieter für die öffentliche IP")
+                                .tag("provider", provider.name)
+                                .tag("outcome", outcome)
+                                .register(meterRegistry)
+                                .record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+                    });
+            return austausch;
+        }
+
+        private void abbrechen() {
+            aufrufe.forEach(aufruf -> aufruf.cancel(true));
+        }
     }
 
+    private static String parse(Provider provider, HttpResponse<String> response) {
+        if (response.statusCode() != 200) {
+            throw new RuntimeException("HTTP " + response.statusCode() + " von " + provider.name);
+        }
+
+        String body = response.body() != null ? response.body().trim() : "";
+        Matcher origin = ORIGIN_PATTERN.matcher(body);
+        String ip = origin.find() ? origin.group(1).trim() : body;
 
-}
\ No newline at end of file
+        if (!IP_PATTERN.matcher(ip).matches()) {
+            throw new RuntimeException("Ungültige Antwort von " + provider.name);
+        }
+        return ip;
+    }
+}
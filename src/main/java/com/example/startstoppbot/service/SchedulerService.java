@@ -1,16 +1,14 @@
 package com.example.startstoppbot.service;
 
 import com.example.startstoppbot.model.ContainerInfo;
+import com.example.startstoppbot.model.ContainerKey;
 import com.example.startstoppbot.repository.ContainerInfoRepository;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.beans.factory.annotation.Value;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 
 import java.time.LocalDateTime;
 import java.util.List;
-import java.util.Set;
-import java.util.stream.Collectors;
 
 @Service
 public class SchedulerService {
@@ -21,116 +19,30 @@ public class SchedulerService {
     @Autowired
     private ContainerInfoRepository containerInfoRepository;
 
-    @Value("${scheduler.auto-stop.enabled:true}")
-    private boolean autoStopEnabled;
-
-    @Value("${scheduler.auto-stop.inactivity-minutes:30}")
-    private int inactivityMinutes;
-
-    @Value("${scheduler.auto-stop.check-players:true}")
-    private boolean checkPlayersForAutoStop;
-
-    /**
-     * Überprüft alle 5 Minuten, ob Container gestoppt werden müssen
-     * Container werden gestoppt, wenn sie eine bestimmte Zeit nicht mehr aktiv waren
-     */
-    @Scheduled(fixedRate = 300000) // 5 Minuten in Millisekunden
-    public void checkAndStopInactiveContainers() {
-        if (!autoStopEnabled) {
-            return;
-        }
+    @Autowired
+    private ContainerStateCache containerStateCache;
 
-        try {
-            LocalDateTime cutoffTime = LocalDateTime.now().minusMinutes(inactivityMinutes);
-            List<ContainerInfo> runningContainers = containerInfoRepository.findByDiscordEnabledTrue()
-                    .stream()
-                    .filter(container -> "running".equalsIgnoreCase(container.getStatus()))
-                    .toList();
+    // Auto-Stopp läuft terminbasiert im AutoStopService statt als periodischer Durchlauf
+    @Autowired
+    private AutoStopService autoStopService;
 
-            for (ContainerInfo container : runningContainers) {
-                boolean shouldStop = false;
-                String reason = "";
-
-                if (checkPlayersForAutoStop && container.getCurrentPlayers() != null) {
-                    // Stoppe Container wenn keine Spieler online sind und letzte Aktualisierung alt ist
-                    if (container.getCurrentPlayers() == 0 &&
-                            container.getLastPlayerUpdate() != null &&
-                            container.getLastPlayerUpdate().isBefore(cutoffTime)) {
-                        shouldStop = true;
-                        reason = "Keine Spieler seit " + inactivityMinutes + " Minuten";
-                    }
-                } else {
-                    // Fallback: Stoppe Container nach allgemeiner Inaktivitätszeit
-                    // (Dies kann erweitert werden um andere Inaktivitätskriterien)
-                    if (container.getLastPlayerUpdate() != null &&
-                            container.getLastPlayerUpdate().isBefore(cutoffTime)) {
-                        shouldStop = true;
-                        reason = "Inaktiv seit " + inactivityMinutes + " Minuten";
-                    }
-                }
-
-                if (shouldStop) {
-                    try {
-                        System.out.println("Auto-Stopp für Container: " + container.getName() + " - Grund: " + reason);
-                        dockerService.stoppeContainer(container.getName());
-
-                        // Optional: Spielerzahl auf 0 setzen nach dem Stoppen
-                        containerInfoRepository.updatePlayerCountByName(
-                                container.getName(), 0, LocalDateTime.now());
-
-                    } catch (Exception e) {
-                        System.err.println("Fehler beim automatischen Stoppen von Container " +
-                                container.getName() + ": " + e.getMessage());
-                    }
-                }
-            }
-        } catch (Exception e) {
-            System.err.println("Fehler beim Überprüfen inaktiver Container: " + e.getMessage());
-        }
-    }
+    @Autowired
+    private FleetMetrics fleetMetrics;
 
     /**
-     * Aktualisiert alle 4 Minuten die Datenbank mit aktuellen Container-Informationen
-     * und entfernt nicht mehr existierende Container
+     * Vollständiger Abgleich der Datenbank mit den aktuellen Container-Informationen
+     * und Entfernen nicht mehr existierender Container.
+     * Laufende Änderungen kommen über den Docker-Event-Stream (DockerEventService),
+     * daher dient dieser Abgleich nur noch als Absicherung (Standard: alle 30 Minuten)
      */
-    @Scheduled(fixedRate = 240000) // 4 Minuten in Millisekunden
+    @Scheduled(fixedRateString = "${scheduler.full-sync.interval-ms:1800000}")
     public void updateDB() {
         try {
             System.out.println("Aktualisiere Container-Datenbank...");
 
-            // Hole alle Container aus der Datenbank vor der Aktualisierung
-            List<ContainerInfo> dbContainersBefore = containerInfoRepository.findAll();
-            Set<String> dbContainerNamesBefore = dbContainersBefore.stream()
-                    .map(ContainerInfo::getName)
-                    .collect(Collectors.toSet());
-
-            // Aktualisiere die Datenbank mit aktuellen Docker-Containern
+            // Abgleich inkl. Entfernen nicht mehr existierender Container erfolgt gesammelt im DockerService
             dockerService.aktualisiereDB();
 
-            // Hole alle Container aus der Datenbank nach der Aktualisierung
-            List<ContainerInfo> dbContainersAfter = containerInfoRepository.findAll();
-            Set<String> dbContainerNamesAfter = dbContainersAfter.stream()
-                    .map(ContainerInfo::getName)
-                    .collect(Collectors.toSet());
-
-            // Finde Container, die in der DB waren, aber nicht mehr existieren
-            Set<String> removedContainers = dbContainerNamesBefore.stream()
-                    .filter(name -> !dbContainerNamesAfter.contains(name))
-                    .collect(Collectors.toSet());
-
-            // Entferne nicht mehr existierende Container aus der Datenbank
-            if (!removedContainers.isEmpty()) {
-                System.out.println("Entferne nicht mehr existierende Container: " + removedContainers);
-                for (String containerName : removedContainers) {
-                    try {
-                        containerInfoRepository.deleteByName(containerName);
-                        System.out.println("Container '" + containerName + "' aus Datenbank entfernt");
-                    } catch (Exception e) {
-                        System.err.println("Fehler beim Entfernen von Container '" + containerName + "': " + e.getMessage());
-                    }
-                }
-            }
-
             System.out.println("Datenbank-Aktualisierung abgeschlossen.");
 
         } catch (Exception e) {
@@ -148,19 +60,18 @@ public class SchedulerService {
     public void cleanupOldPlayerData() {
         try {
             LocalDateTime sevenDaysAgo = LocalDateTime.now().minusDays(7);
-            List<ContainerInfo> containers = containerInfoRepository.findAll();
-
-            int cleanedCount = 0;
-            for (ContainerInfo container : containers) {
-                if (container.getLastPlayerUpdate() != null &&
-                        container.getLastPlayerUpdate().isBefore(sevenDaysAgo)) {
-
-                    // Setze Spielerzahl auf 0 und entferne alte Zeitstempel
-                    containerInfoRepository.updatePlayerCountByName(
-                            container.getName(), 0, null);
-                    cleanedCount++;
-                }
-            }
+
+            // Ein UPDATE für alle betroffenen Zeilen statt einem Update pro Container
+            int cleanedCount = containerInfoRepository.resetPlayerCountsUpdatedBefore(sevenDaysAgo);
+
+            List<ContainerKey> staleKeys = containerStateCache.findAll().stream()
+                    .filter(c -> c.getLastPlayerUpdate() != null && c.getLastPlayerUpdate().isBefore(sevenDaysAgo))
+                    .map(ContainerInfo::key)
+                    .toList();
+            containerStateCache.aendereAlle(staleKeys, c -> {
+                c.setCurrentPlayers(0);
+                c.setLastPlayerUpdate(null);
+            });
 
             if (cleanedCount > 0) {
                 System.out.println("Bereinigung abgeschlossen. " + cleanedCount +
@@ -172,26 +83,20 @@ public class SchedulerService {
     }
 
     /**
-     * Status-Report alle 30 Minuten für Debugging/Monitoring
+     * Status-Report alle 30 Minuten für Debugging - liest nur die laufend gepflegten Zähler
+     * (dieselben Werte stehen als Gauges unter /actuator/prometheus bereit)
      */
     @Scheduled(fixedRate = 1800000) // 30 Minuten in Millisekunden
     public void logSystemStatus() {
         try {
-            List<ContainerInfo> allContainers = containerInfoRepository.findAll();
-            List<ContainerInfo> discordEnabled = containerInfoRepository.findByDiscordEnabledTrue();
-            List<ContainerInfo> withActivePlayers = containerInfoRepository.findByCurrentPlayersGreaterThan(0);
-
-            long runningContainers = allContainers.stream()
-                    .filter(c -> "running".equalsIgnoreCase(c.getStatus()))
-                    .count();
-
             System.out.println("=== System Status ===");
-            System.out.println("Gesamt Container: " + allContainers.size());
-            System.out.println("Discord-aktiviert: " + discordEnabled.size());
-            System.out.println("Laufende Container: " + runningContainers);
-            System.out.println("Container mit Spielern: " + withActivePlayers.size());
-            System.out.println("Auto-Stopp aktiviert: " + autoStopEnabled);
-            System.out.println("Inaktivitäts-Schwelle: " + inactivityMinutes + " Minuten");
+            System.out.println("Gesamt Container: " + fleetMetrics.getTotal());
+            System.out.println("Discord-aktiviert: " + fleetMetrics.getDiscordEnabled());
+            System.out.println("Laufende Container: " + fleetMetrics.getRunning());
+            System.out.println("Container mit Spielern: " + fleetMetrics.getWithPlayers());
+            System.out.println("Auto-Stopp aktiviert: " + autoStopService.isAutoStopEnabled());
+            System.out.println("Inaktivitäts-Schwelle: " + autoStopService.getInactivityMinutes() + " Minuten");
+            System.out.println("Geplante Auto-Stopps: " + autoStopService.getGeplanteTermine());
             System.out.println("==================");
 
         } catch (Exception e) {
@@ -203,7 +108,7 @@ public class SchedulerService {
      * Manuelle Methode zum Aktivieren/Deaktivieren des Auto-Stop-Features
      */
     public void setAutoStopEnabled(boolean enabled) {
-        this.autoStopEnabled = enabled;
+        autoStopService.setAutoStopEnabled(enabled);
         System.out.println("Auto-Stopp " + (enabled ? "aktiviert" : "deaktiviert"));
     }
 
@@ -211,7 +116,7 @@ public class SchedulerService {
      * Manuelle Methode zum Ändern der Inaktivitäts-Schwelle
      */
     public void setInactivityMinutes(int minutes) {
-        this.inactivityMinutes = minutes;
+        autoStopService.setInactivityMinutes(minutes);
         System.out.println("Inaktivitäts-Schwelle auf " + minutes + " Minuten gesetzt");
     }
 
@@ -221,9 +126,9 @@ public class SchedulerService {
     public String getSchedulerStatus() {
         return String.format(
                 "Auto-Stopp: %s | Inaktivitäts-Schwelle: %d Min | Spieler-Check: %s",
-                autoStopEnabled ? "AN" : "AUS",
-                inactivityMinutes,
-                checkPlayersForAutoStop ? "AN" : "AUS"
+                autoStopService.isAutoStopEnabled() ? "AN" : "AUS",
+                autoStopService.getInactivityMinutes(),
+                autoStopService.isCheckPlayersForAutoStop() ? "AN" : "AUS"
         );
     }
 }
\ No newline at end of file
@@ -0,0 +1,381 @@
+package com.example.startstoppbot.service;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.client.AbstractClientHttpRequest;
+import org.springframework.http.client.ClientHttpRequest;
+import org.springframework.http.client.ClientHttpRequestFactory;
+import org.springframework.http.client.ClientHttpResponse;
+
+import java.io.*;
+import java.net.StandardProtocolFamily;
+import java.net.URI;
+import java.net.UnixDomainSocketAddress;
+import java.nio.channels.Channels;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * ClientHttpRequestFactory für die Docker Engine API über einen Unix Domain Socket
+ * (z.B. /var/run/docker.sock). Spricht HTTP/1.1 direkt über einen SocketChannel,
+ * unterstützt Content-Length-, Chunked- und Streaming-Antworten (z.B. /events).
+ * Unix-Socket-Kanäle kennen kein Lese-Timeout - das Zeitbudget wird daher über einen
+ * Watchdog durchgesetzt, der die Verbindung nach Ablauf schließt.
+ */
+public class UnixSocketClientHttpRequestFactory implements ClientHttpRequestFactory {
+
+    private static final ScheduledExecutorService WATCHDOG = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread thread = new Thread(r, "docker-socket-watchdog");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private final Path socketPath;
+    private final Duration timeout;
+
+    /**
+     * @param socketPath Pfad zum Socket, z.B. /var/run/docker.sock
+     * @param timeout Zeitbudget für den gesamten Aufruf inkl. Lesen der Antwort, Duration.ZERO = unbegrenzt
+     */
+    public UnixSocketClientHttpRequestFactory(Path socketPath, Duration timeout) {
+        this.socketPath = socketPath;
+        this.timeout = timeout;
+    }
+
+    @Override
+    public ClientHttpRequest createRequest(URI uri, HttpMethod httpMethod) {
+        return new UnixSocketRequest(uri, httpMethod);
+    }
+
+    private class UnixSocketRequest extends AbstractClientHttpRequest {
+
+        private final URI uri;
+        private final HttpMethod method;
+        private final ByteArrayOutputStream body = new ByteArrayOutputStream();
+
+        private UnixSocketRequest(URI uri, HttpMethod method) {
+            this.uri = uri;
+            this.method = method;
+        }
+
+        @Override
+        public HttpMethod getMethod() {
+            return method;
+        }
+
+        @Override
+        public URI getURI() {
+            return uri;
+        }
+
+        @Override
+        protected OutputStream getBodyInternal(HttpHeaders headers) {
+            return body;
+        }
+
+        @Override
+        protected ClientHttpResponse executeInternal(HttpHeaders headers) throws IOException {
+            SocketChannel channel = SocketChannel.open(StandardProtocolFamily.UNIX);
+            AtomicBoolean timedOut = new AtomicBoolean();
+            ScheduledFuture<?> watchdog = null;
+            try {
+                channel.connect(UnixDomainSocketAddress.of(socketPath));
+                if (!timeout.isZero()) {
+                    watchdog = WATCHDOG.schedule(() -> {
+                        timedOut.set(true);
+                        schliesse(channel);
+                    }, timeout.toMillis(), TimeUnit.MILLISECONDS);
+                }
+
+                OutputStream out = Channels.newOutputStream(channel);
+                out.write(buildRequestHead(headers).getBytes(StandardCharsets.ISO_8859_1));
+                body.writeTo(out);
+                out.flush();
+
+                InputStream in = new BufferedInputStream(Channels.newInputStream(channel));
+                return UnixSocketResponse.read(in, method, channel, watchdog);
+
+            } catch (IOException e) {
+                if (watchdog != null) {
+                    watchdog.cancel(false);
+                }
+                schliesse(channel);
+                if (timedOut.get()) {
+                    throw new IOException("Zeitüberschreitung nach " + timeout.toMillis() + " ms: " + uri, e);
+                }
+                throw e;
+            }
+        }
+
+        private String buildRequestHead(HttpHeaders headers) {
+            StringBuilder head = new StringBuilder();
+            String path = uri.getRawPath() == null || uri.getRawPath().isEmpty() ? "/" : uri.getRawPath();
+            head.append(method.name()).append(' ').append(path);
+            if (uri.getRawQuery() != null) {
+                head.append('?').append(uri.getRawQuery());
+            }
+            head.append(" HTTP/1.1\r\n");
+            head.append("Host: docker\r\n");
+            head.append("Connection: close\r\n");
+            head.append("Content-Length: ").append(body.size()).append("\r\n");
+
+            for (Map.Entry<String, List<String>> header : headers.entrySet()) {
+                String name = header.getKey();
+                if (name.equalsIgnoreCase(HttpHeaders.HOST) || name.equalsIgnoreCase(HttpHeaders.CONNECTION)
+                        || name.equalsIgnoreCase(HttpHeaders.CONTENT_LENGTH)) {
+                    continue;
+                }
+                for (String value : header.getValue()) {
+                    head.append(name).append(": ").append(value).append("\r\n");
+                }
+            }
+            head.append("\r\n");
+            return head.toString();
+        }
+    }
+
+    private static class UnixSocketResponse implements ClientHttpResponse {
+
+        private final HttpStatusCode statusCode;
+        private final String statusText;
+        private final HttpHeaders headers;
+        private final InputStream body;
+        private final SocketChannel channel;
+        private final ScheduledFuture<?> watchdog;
+
+        private UnixSocketResponse(HttpStatusCode statusCode, String statusText, HttpHeaders headers,
+                                   InputStream body, SocketChannel channel, ScheduledFuture<?> watchdog) {
+            this.statusCode = statusCode;
+            this.statusText = statusText;
+            this.headers = headers;
+            this.body = body;
+            this.channel = channel;
+            this.watchdog = watchdog;
+        }
+
+        static UnixSocketResponse read(InputStream in, HttpMethod method, SocketChannel channel,
+                                       ScheduledFuture<?> watchdog) throws IOException {
+            String statusLine = readLine(in);
+            if (statusLine == null || !statusLine.startsWith("HTTP/")) {
+                throw new IOException("Ungültige Antwort vom Docker-Socket: " + statusLine);
+            }
+
+            // Format: HTTP/1.1 204 No Content
+            String[] parts = statusLine.split(" ", 3);
+            int status = Integer.parseInt(parts[1]);
+            String statusText = parts.length > 2 ? parts[2] : "";
+
+            HttpHeaders headers = new HttpHeaders();
+            String line;
+            while ((line = readLine(in)) != null && !line.isEmpty()) {
+                int colon = line.indexOf(':');
+                if (colon > 0) {
+                    headers.add(line.substring(0, colon).trim(), line.substring(colon + 1).trim());
+                }
+            }
+
+            InputStream body;
+            if (method == HttpMethod.HEAD || status == 204 || status == 304 || (status >= 100 && status < 200)) {
+                body = InputStream.nullInputStream();
+            } else if ("chunked".equalsIgnoreCase(headers.getFirst(HttpHeaders.TRANSFER_ENCODING))) {
+                body = new ChunkedInputStream(in);
+            } else if (headers.getContentLength() >= 0) {
+                body = new BoundedInputStream(in, headers.getContentLength());
+            } else {
+                // Connection: close - Antwort endet mit dem Schließen der Verbindung
+                body = in;
+            }
+
+            return new UnixSocketResponse(HttpStatusCode.valueOf(status), statusText, headers, body, channel, watchdog);
+        }
+
+        @Override
+        public HttpStatusCode getStatusCode() {
+            return statusCode;
+        }
+
+        @Override
+        public String getStatusText() {
+            return statusText;
+        }
+
+        @Override
+        public HttpHeaders getHeaders() {
+            return headers;
+        }
+
+        @Override
+        public InputStream getBody() {
+            return body;
+        }
+
+        @Override
+        public void close() {
+            if (watchdog != null) {
+                watchdog.cancel(false);
+            }
+            schliesse(channel);
+        }
+    }
+
+    private static String readLine(InputStream in) throws IOException {
+        StringBuilder line = new StringBuilder();
+        int b;
+        while ((b = in.read()) != -1) {
+            if (b == '\n') {
+                int length = line.length();
+                if (length > 0 && line.charAt(length - 1) == '\r') {
+                    line.setLength(length - 1);
+                }
+                return line.toString();
+            }
+            line.append((char) b);
+        }
+        return line.length() > 0 ? line.toString() : null;
+    }
+
+    private static void schliesse(SocketChannel channel) {
+        try {
+            channel.close();
+        } catch (IOException ignored) {
+            // Verbindung ist bereits geschlossen
+        }
+    }
+
+    /**
+     * Liest genau die per Content-Length angekündigte Anzahl Bytes
+     */
+    private static class BoundedInputStream extends FilterInputStream {
+        private long remaining;
+
+        BoundedInputStream(InputStream in, long length) {
+            super(in);
+            this.remaining = length;
+        }
+
+        @Override
+        public boolean markSupported() {
+            // mark/reset des darunterliegenden Streams würde den Zähler nicht zurücksetzen
+            return false;
+        }
+
+        @Override
+        public int read() throws IOException {
+            if (remaining <= 0) {
+                return -1;
+            }
+            int b = in.read();
+            if (b != -1) {
+                remaining--;
+            }
+            return b;
+        }
+
+        @Override
+        public int read(byte[] buffer, int offset, int length) throws IOException {
+            if (remaining <= 0) {
+                return -1;
+            }
+            int read = in.read(buffer, offset, (int) Math.min(length, remaining));
+            if (read > 0) {
+                remaining -= read;
+            }
+            return read;
+        }
+
+        @Override
+        public int available() throws IOException {
+            return (int) Math.min(in.available(), remaining);
+        }
+    }
+
+    /**
+     * Dekodiert Transfer-Encoding: chunked (von Docker u.a. für /events verwendet)
+     */
+    private static class ChunkedInputStream extends FilterInputStream {
+        private long chunkRemaining;
+        private boolean finished;
+
+        ChunkedInputStream(InputStream in) {
+            super(in);
+        }
+
+        @Override
+        public boolean markSupported() {
+            // mark/reset des darunterliegenden Streams würde den Zähler nicht zurücksetzen
+            return false;
+        }
+
+        private boolean nextChunk() throws IOException {
+            if (finished) {
+                return false;
+            }
+            if (chunkRemaining == 0) {
+                String sizeLine = readLine(in);
+                // CRLF am Ende des vorherigen Chunks überspringen
+                if (sizeLine != null && sizeLine.isEmpty()) {
+                    sizeLine = readLine(in);
+                }
+                if (sizeLine == null) {
+                    finished = true;
+                    return false;
+                }
+                int extension = sizeLine.indexOf(';');
+                String size = extension >= 0 ? sizeLine.substring(0, extension) : sizeLine;
+                chunkRemaining = Long.parseLong(size.trim(), 16);
+                if (chunkRemaining == 0) {
+                    // Trailer bis zur Leerzeile verwerfen
+                    String trailer;
+                    while ((trailer = readLine(in)) != null && !trailer.isEmpty()) {
+                        // ignorieren
+                    }
+                    finished = true;
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        @Override
+        public int read() throws IOException {
+            if (!nextChunk()) {
+                return -1;
+            }
+            int b = in.read();
+            if (b != -1) {
+                chunkRemaining--;
+            }
+            return b;
+        }
+
+        @Override
+        public int read(byte[] buffer, int offset, int length) throws IOException {
+            if (length == 0) {
+                return 0;
+            }
+            if (!nextChunk()) {
+                return -1;
+            }
+            int read = in.read(buffer, offset, (int) Math.min(length, chunkRemaining));
+            if (read > 0) {
+                chunkRemaining -= read;
+            }
+            return read;
+        }
+
+        @Override
+        public int available() throws IOException {
+            return finished ? 0 : (int) Math.min(in.available(), chunkRemaining);
+        }
+    }
+}
@@ -0,0 +1,131 @@
+package com.example.startstoppbot.service;
+
+import com.example.startstoppbot.StartStoppBotApplication;
+import com.example.startstoppbot.config.ContainerKeyMigration;
+import com.example.startstoppbot.model.ContainerInfo;
+import com.example.startstoppbot.model.ContainerKey;
+import com.example.startstoppbot.repository.ContainerInfoRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.SpringBootConfiguration;
+import org.springframework.boot.autoconfigure.AutoConfigurationPackage;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.sql.DataSource;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Spielt Docker-Events beim Neuaufbau eines Containers nach und prüft, dass dessen Einstellungen erhalten bleiben
+ */
+@DataJpaTest(properties = "logging.file.name=")
+@ContextConfiguration(classes = DockerServiceEventTest.Konfiguration.class)
+// Jedes Event in eigener Transaktion - der Cache übernimmt Änderungen erst nach dem Commit
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class DockerServiceEventTest {
+
+    private static final ContainerKey KEY = new ContainerKey(1, "minecraft");
+
+    // Ohne StartStoppBotApplication - nur JPA, Cache und DockerService statt Discord, Scheduler & Co.
+    @SpringBootConfiguration
+    @AutoConfigurationPackage(basePackageClasses = StartStoppBotApplication.class)
+    @Import({DockerService.class, ContainerStateCache.class})
+    static class Konfiguration {
+        // Unter dem Bean-Namen, von dem ContainerStateCache abhängt
+        @Bean
+        ContainerKeyMigration containerKeyMigration(DataSource dataSource, JdbcTemplate jdbcTemplate) {
+            return new ContainerKeyMigration(dataSource, jdbcTemplate);
+        }
+
+        @Bean
+        MeterRegistry meterRegistry() {
+            return new SimpleMeterRegistry();
+        }
+
+        @Bean
+        DockerHostRegistry dockerHostRegistry() {
+            return new DockerHostRegistry(Map.of());
+        }
+    }
+
+    @Autowired
+    private DockerService dockerService;
+
+    @Autowired
+    private ContainerStateCache containerStateCache;
+
+    @Autowired
+    private ContainerInfoRepository containerInfoRepository;
+
+    @BeforeEach
+    void setUp() {
+        containerInfoRepository.deleteAll();
+        ContainerInfo container = new ContainerInfo();
+        container.setEndpointId(KEY.getEndpointId());
+        container.setName(KEY.getName());
+        container.setContainerId("alt");
+        container.setStatus("running");
+        container.setDiscordEnabled(true);
+        container.setMaxPlayers(20);
+        containerInfoRepository.save(container);
+        containerStateCache.ladeAusDatenbank();
+    }
+
+    private void event(String containerId, String name, String action, String oldName) {
+        dockerService.wendeContainerEventAn(KEY.getEndpointId(), containerId, name, action, oldName);
+    }
+
+    private void pruefeEinstellungenErhalten(String containerId, String status) {
+        assertEquals(1, containerInfoRepository.count());
+        for (ContainerInfo container : new ContainerInfo[]{
+                containerInfoRepository.findById(KEY).orElseThrow(),
+                containerStateCache.findByKey(KEY).orElseThrow()}) {
+            assertEquals(containerId, container.getContainerId());
+            assertEquals(status, container.getStatus());
+            assertTrue(container.getDiscordEnabled());
+            assertEquals(20, container.getMaxPlayers());
+        }
+        assertEquals(1, containerStateCache.findAll().size());
+    }
+
+    @Test
+    void composeNeuaufbauBehaeltEinstellungen() {
+        // docker compose up nach Image-Wechsel: neuer Container unter temporärem Namen, alter wird gelöscht
+        event("alt", "minecraft", "die", null);
+        event("neu", "neu123_minecraft", "create", null);
+        event("alt", "minecraft", "destroy", null);
+        assertEquals(DockerService.STATUS_ENTFERNT, containerStateCache.findByKey(KEY).orElseThrow().getStatus());
+        event("neu", "minecraft", "rename", "/neu123_minecraft");
+        event("neu", "minecraft", "start", null);
+
+        pruefeEinstellungenErhalten("neu", "running");
+        assertTrue(containerStateCache.findByKey(new ContainerKey(1, "neu123_minecraft")).isEmpty());
+    }
+
+    @Test
+    void rmUndRunMitGleichemNamenBehaeltEinstellungen() {
+        event("alt", "minecraft", "die", null);
+        event("alt", "minecraft", "destroy", null);
+        event("neu", "minecraft", "create", null);
+        event("neu", "minecraft", "start", null);
+
+        pruefeEinstellungenErhalten("neu", "running");
+    }
+
+    @Test
+    void destroyEinesAnderenContainersWirdIgnoriert() {
+        event("fremd", "minecraft", "destroy", null);
+
+        pruefeEinstellungenErhalten("alt", "running");
+    }
+}
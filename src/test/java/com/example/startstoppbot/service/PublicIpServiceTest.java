@@ -0,0 +1,159 @@
+package com.example.startstoppbot.service;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Prüft Hedging, Reihenfolge und Abbruch der IP-Abfrage gegen lokale HTTP-Anbieter statt ipify & Co.
+ */
+class PublicIpServiceTest {
+
+    private HttpServer server;
+    private final Map<String, AtomicInteger> aufrufe = new ConcurrentHashMap<>();
+    // Wird ausgelöst, sobald der Client eine noch laufende (langsame) Antwort abbricht
+    private final CountDownLatch abgebrochen = new CountDownLatch(1);
+
+    @BeforeEach
+    void setUp() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.setExecutor(Executors.newVirtualThreadPerTaskExecutor());
+        anbieter("/schnell", exchange -> antworte(exchange, 200, "203.0.113.1\n"));
+        anbieter("/json", exchange -> antworte(exchange, 200, "{\"origin\": \"203.0.113.2, 10.0.0.1\"}"));
+        anbieter("/fehler", exchange -> antworte(exchange, 500, "kaputt"));
+        anbieter("/ungueltig", exchange -> antworte(exchange, 200, "<html>kein Text</html>"));
+        anbieter("/langsam", this::langsam);
+        server.start();
+    }
+
+    @AfterEach
+    void tearDown() {
+        server.stop(0);
+    }
+
+    private interface Handler {
+        void handle(HttpExchange exchange) throws IOException;
+    }
+
+    private void anbieter(String pfad, Handler handler) {
+        aufrufe.put(pfad, new AtomicInteger());
+        server.createContext(pfad, exchange -> {
+            aufrufe.get(pfad).incrementAndGet();
+            try (exchange) {
+                handler.handle(exchange);
+            }
+        });
+    }
+
+    private static void antworte(HttpExchange exchange, int status, String body) throws IOException {
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.sendResponseHeaders(status, bytes.length);
+        exchange.getResponseBody().write(bytes);
+    }
+
+    /**
+     * Sendet den Body (chunked) tröpfchenweise über mehrere Sekunden - ein abgebrochener Client fällt beim Schreiben auf
+     */
+    private void langsam(HttpExchange exchange) throws IOException {
+        exchange.sendResponseHeaders(200, 0);
+        OutputStream out = exchange.getResponseBody();
+        try {
+            for (int i = 0; i < 100; i++) {
+                out.write(' ');
+                out.flush();
+                Thread.sleep(50);
+            }
+            out.write("203.0.113.9".getBytes(StandardCharsets.UTF_8));
+        } catch (IOException e) {
+            abgebrochen.countDown();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private PublicIpService service(long hedgeDelayMs, String... pfade) {
+        String basis = "http://127.0.0.1:" + server.getAddress().getPort();
+        PublicIpService service = new PublicIpService(new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(service, "providerUrls", List.of(pfade).stream().map(p -> basis + p).toList());
+        // Jeder Aufruf fragt neu an
+        ReflectionTestUtils.setField(service, "ttlMs", 0L);
+        ReflectionTestUtils.setField(service, "timeoutMs", 5000L);
+        ReflectionTestUtils.setField(service, "hedgeDelayMs", hedgeDelayMs);
+        service.init();
+        return service;
+    }
+
+    @Test
+    void schnellerAnbieterGewinntUndLangsamerWirdAbgebrochen() throws Exception {
+        PublicIpService service = service(100, "/langsam", "/schnell");
+
+        long start = System.nanoTime();
+        assertEquals("203.0.113.1", service.getPublicIp());
+        assertTrue(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) < 2000);
+
+        // Der verlorene Aufruf läuft nicht bis zum Timeout weiter
+        assertTrue(abgebrochen.await(3, TimeUnit.SECONDS), "Langsamer Aufruf wurde nicht abgebrochen");
+    }
+
+    @Test
+    void fehlerStartetNaechstenAnbieterSofort() {
+        // Hedge-Verzögerung länger als der Test - nur ein Fehler darf den nächsten Anbieter vorziehen
+        PublicIpService service = service(10_000, "/fehler", "/ungueltig", "/json");
+
+        long start = System.nanoTime();
+        assertEquals("203.0.113.2", service.getPublicIp());
+        assertTrue(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) < 2000);
+        assertEquals(1, aufrufe.get("/fehler").get());
+        assertEquals(1, aufrufe.get("/ungueltig").get());
+    }
+
+    @Test
+    void fehlerhafteAnbieterRutschenNachHinten() {
+        PublicIpService service = service(10_000, "/fehler", "/schnell");
+
+        assertEquals("203.0.113.1", service.getPublicIp());
+        assertEquals("203.0.113.1", service.getPublicIp());
+        assertEquals("203.0.113.1", service.getPublicIp());
+
+        // Nach dem ersten Fehler wird zuerst der funktionierende Anbieter gefragt, der sofort antwortet
+        assertEquals(1, aufrufe.get("/fehler").get());
+        assertEquals(3, aufrufe.get("/schnell").get());
+    }
+
+    @Test
+    void alleFehlgeschlagenOhneBekannteIp() {
+        PublicIpService service = service(50, "/fehler", "/ungueltig");
+
+        RuntimeException e = assertThrows(RuntimeException.class, service::getPublicIp);
+        assertTrue(e.getMessage().startsWith("Konnte öffentliche IP-Adresse nicht abrufen"), e.getMessage());
+    }
+
+    @Test
+    void zuletztBekannteIpWennAlleFehlschlagen() {
+        PublicIpService service = service(50, "/schnell");
+        assertEquals("203.0.113.1", service.getPublicIp());
+
+        ReflectionTestUtils.setField(service, "providerUrls", List.of(
+                "http://127.0.0.1:" + server.getAddress().getPort() + "/fehler"));
+        service.init();
+        assertEquals("203.0.113.1", service.getPublicIp());
+    }
+}
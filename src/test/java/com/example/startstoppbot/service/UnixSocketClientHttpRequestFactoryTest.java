@@ -0,0 +1,195 @@
+package com.example.startstoppbot.service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.client.ClientHttpRequest;
+import org.springframework.http.client.ClientHttpResponse;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.net.StandardProtocolFamily;
+import java.net.URI;
+import java.net.UnixDomainSocketAddress;
+import java.nio.channels.Channels;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Prüft den HTTP/1.1-Client gegen einen lokalen Unix-Domain-Socket, der Antworten wie die Docker Engine liefert
+ */
+class UnixSocketClientHttpRequestFactoryTest {
+
+    @TempDir
+    Path tempDir;
+
+    private Path socketPath;
+    private ServerSocketChannel server;
+
+    // Kopfzeilen der zuletzt empfangenen Anfrage
+    private final CompletableFuture<String> anfrage = new CompletableFuture<>();
+
+    @FunctionalInterface
+    interface Antwort {
+        void schreibe(OutputStream out) throws Exception;
+    }
+
+    @BeforeEach
+    void setUp() throws IOException {
+        socketPath = tempDir.resolve("docker.sock");
+        server = ServerSocketChannel.open(StandardProtocolFamily.UNIX);
+        server.bind(UnixDomainSocketAddress.of(socketPath));
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        server.close();
+    }
+
+    /**
+     * Nimmt genau eine Verbindung an, liest die Anfrage und schreibt die Antwort
+     */
+    private void antworte(Antwort antwort) {
+        Thread.ofVirtual().start(() -> {
+            try (SocketChannel channel = server.accept()) {
+                InputStream in = Channels.newInputStream(channel);
+                anfrage.complete(leseAnfrage(in));
+                OutputStream out = Channels.newOutputStream(channel);
+                antwort.schreibe(out);
+                out.flush();
+            } catch (Exception e) {
+                anfrage.completeExceptionally(e);
+            }
+        });
+    }
+
+    private static String leseAnfrage(InputStream in) throws IOException {
+        ByteArrayOutputStream kopf = new ByteArrayOutputStream();
+        int b;
+        while ((b = in.read()) != -1) {
+            kopf.write(b);
+            if (kopf.toString(StandardCharsets.ISO_8859_1).endsWith("\r\n\r\n")) {
+                break;
+            }
+        }
+        String text = kopf.toString(StandardCharsets.ISO_8859_1);
+        int laenge = text.lines()
+                .filter(zeile -> zeile.toLowerCase().startsWith("content-length:"))
+                .mapToInt(zeile -> Integer.parseInt(zeile.substring(15).trim()))
+                .findFirst().orElse(0);
+        return text + new String(in.readNBytes(laenge), StandardCharsets.UTF_8);
+    }
+
+    private static void schreibe(OutputStream out, String text) throws IOException {
+        out.write(text.getBytes(StandardCharsets.UTF_8));
+        out.flush();
+    }
+
+    private ClientHttpResponse fuehreAus(HttpMethod method, String uri, String body, Duration timeout) throws IOException {
+        UnixSocketClientHttpRequestFactory factory = new UnixSocketClientHttpRequestFactory(socketPath, timeout);
+        ClientHttpRequest request = factory.createRequest(URI.create(uri), method);
+        if (body != null) {
+            request.getHeaders().add("Content-Type", "application/json");
+            request.getBody().write(body.getBytes(StandardCharsets.UTF_8));
+        }
+        return request.execute();
+    }
+
+    @Test
+    void liestAntwortMitContentLength() throws Exception {
+        antworte(out -> schreibe(out, "HTTP/1.1 200 OK\r\nContent-Type: application/json\r\nContent-Length: 20\r\n\r\n"
+                + "{\"ApiVersion\":\"1.4\"}" + "nicht mehr Teil der Antwort"));
+
+        try (ClientHttpResponse response = fuehreAus(HttpMethod.GET,
+                "http://docker/v1.43/containers/json?all=true", null, Duration.ofSeconds(5))) {
+            assertEquals(HttpStatus.OK, response.getStatusCode());
+            assertEquals("OK", response.getStatusText());
+            assertEquals("application/json", response.getHeaders().getFirst("Content-Type"));
+            assertEquals("{\"ApiVersion\":\"1.4\"}", new String(response.getBody().readAllBytes(), StandardCharsets.UTF_8));
+        }
+
+        String kopf = anfrage.get(5, TimeUnit.SECONDS);
+        assertTrue(kopf.startsWith("GET /v1.43/containers/json?all=true HTTP/1.1\r\n"), kopf);
+        assertTrue(kopf.contains("Host: docker\r\n"), kopf);
+        assertTrue(kopf.contains("Connection: close\r\n"), kopf);
+    }
+
+    @Test
+    void sendetBodyUndLiestLeereAntwort() throws Exception {
+        antworte(out -> schreibe(out, "HTTP/1.1 204 No Content\r\n\r\n"));
+
+        try (ClientHttpResponse response = fuehreAus(HttpMethod.POST,
+                "http://docker/v1.43/containers/abc/start", "{\"a\":1}", Duration.ofSeconds(5))) {
+            assertEquals(HttpStatus.NO_CONTENT, response.getStatusCode());
+            assertEquals(0, response.getBody().readAllBytes().length);
+        }
+
+        String kopf = anfrage.get(5, TimeUnit.SECONDS);
+        assertTrue(kopf.startsWith("POST /v1.43/containers/abc/start HTTP/1.1\r\n"), kopf);
+        assertTrue(kopf.contains("Content-Length: 7\r\n"), kopf);
+        assertTrue(kopf.contains("Content-Type: application/json\r\n"), kopf);
+        assertTrue(kopf.endsWith("\r\n\r\n{\"a\":1}"), kopf);
+    }
+
+    @Test
+    void liestChunkedEventsSobaldSieAnkommen() throws Exception {
+        CountDownLatch ersterGelesen = new CountDownLatch(1);
+        antworte(out -> {
+            schreibe(out, "HTTP/1.1 200 OK\r\nContent-Type: application/json\r\nTransfer-Encoding: chunked\r\n\r\n");
+            String erstes = "{\"status\":\"start\"}\n";
+            schreibe(out, Integer.toHexString(erstes.length()) + "\r\n" + erstes + "\r\n");
+            // Zweites Ereignis erst, nachdem der Client das erste gelesen hat (Streaming, nicht gepuffert)
+            assertTrue(ersterGelesen.await(5, TimeUnit.SECONDS));
+            String zweites = "{\"status\":\"die\"}\n";
+            schreibe(out, Integer.toHexString(zweites.length()) + ";ext=1\r\n" + zweites + "\r\n");
+            schreibe(out, "0\r\nX-Trailer: egal\r\n\r\n");
+        });
+
+        try (ClientHttpResponse response = fuehreAus(HttpMethod.GET, "http://docker/v1.43/events", null, Duration.ZERO)) {
+            BufferedReader reader = new BufferedReader(new InputStreamReader(response.getBody(), StandardCharsets.UTF_8));
+            assertEquals("{\"status\":\"start\"}", reader.readLine());
+            ersterGelesen.countDown();
+            assertEquals("{\"status\":\"die\"}", reader.readLine());
+            assertNull(reader.readLine());
+        }
+    }
+
+    @Test
+    void liestAntwortBisZumSchliessenDerVerbindung() throws Exception {
+        antworte(out -> schreibe(out, "HTTP/1.1 500 Internal Server Error\r\n\r\n{\"message\":\"kaputt\"}"));
+
+        try (ClientHttpResponse response = fuehreAus(HttpMethod.GET, "http://docker/_ping", null, Duration.ofSeconds(5))) {
+            assertEquals(HttpStatus.INTERNAL_SERVER_ERROR, response.getStatusCode());
+            assertEquals("{\"message\":\"kaputt\"}", new String(response.getBody().readAllBytes(), StandardCharsets.UTF_8));
+        }
+    }
+
+    @Test
+    void brichtNachZeitbudgetAb() throws Exception {
+        CountDownLatch ende = new CountDownLatch(1);
+        antworte(out -> ende.await(5, TimeUnit.SECONDS));
+
+        long start = System.nanoTime();
+        IOException e = assertThrows(IOException.class,
+                () -> fuehreAus(HttpMethod.GET, "http://docker/version", null, Duration.ofMillis(200)));
+        ende.countDown();
+
+        assertTrue(e.getMessage().startsWith("Zeitüberschreitung nach 200 ms"), e.getMessage());
+        assertTrue(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) < 3000);
+    }
+}